@@ -0,0 +1,119 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Upstream-shaped payloads for the benchmarks, generated from a fixed seed so runs
+ * are comparable.
+ */
+public final class BenchmarkPayloads {
+
+    public static final String QUOTE_JSON = """
+            {
+              "symbol": "AAPL",
+              "name": "Apple Inc",
+              "exchange": "NASDAQ",
+              "mic_code": "XNGS",
+              "currency": "USD",
+              "datetime": "2024-05-17",
+              "timestamp": 1715952600,
+              "open": "189.50999",
+              "high": "190.81000",
+              "low": "189.17999",
+              "close": "189.84000",
+              "volume": "41282925",
+              "previous_close": "189.84000",
+              "change": "0.00000",
+              "percent_change": "0.00000",
+              "average_volume": "57184400",
+              "is_market_open": false,
+              "fifty_two_week": {
+                "low": "164.08000",
+                "high": "199.62000",
+                "low_change": "25.76000",
+                "high_change": "-9.78000",
+                "low_change_percent": "15.69966",
+                "high_change_percent": "-4.89931",
+                "range": "164.080002 - 199.619995"
+              }
+            }
+            """;
+
+    public static final String PROFILE_JSON = """
+            {
+              "symbol": "AAPL",
+              "name": "Apple Inc",
+              "exchange": "NASDAQ",
+              "mic_code": "XNGS",
+              "sector": "Technology",
+              "industry": "Consumer Electronics",
+              "employees": 161000,
+              "website": "https://www.apple.com",
+              "description": "Apple Inc. designs, manufactures, and markets smartphones, personal computers, tablets, wearables, and accessories worldwide. The company offers iPhone, a line of smartphones; Mac, a line of personal computers; iPad, a line of multi-purpose tablets; and wearables, home, and accessories comprising AirPods, Apple TV, Apple Watch, Beats products, and HomePod.",
+              "type": "Common Stock",
+              "CEO": "Mr. Timothy D. Cook",
+              "address": "One Apple Park Way",
+              "city": "Cupertino",
+              "zip": "95014",
+              "state": "CA",
+              "country": "United States",
+              "phone": "408 996 1010",
+              "market_cap": "2913473567232"
+            }
+            """;
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * A {@code time_series} response of {@code bars} daily bars, newest first as
+     * Twelve Data returns them.
+     */
+    public static byte[] timeSeriesJson(int bars) {
+        Random random = new Random(bars);
+        StringBuilder json = new StringBuilder(bars * 140 + 256);
+        json.append("""
+                {"meta":{"symbol":"AAPL","interval":"1day","currency":"USD",\
+                "exchange_timezone":"America/New_York","exchange":"NASDAQ","mic_code":"XNGS",\
+                "type":"Common Stock"},"values":[""");
+        LocalDate day = LocalDate.of(2024, 5, 17);
+        double close = 190;
+        for (int i = 0; i < bars; i++) {
+            double open = close * (1 + random.nextGaussian() * 0.01);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"datetime\":\"%s\",\"open\":\"%.5f\",\"high\":\"%.5f\",\"low\":\"%.5f\","
+                            + "\"close\":\"%.5f\",\"volume\":\"%d\"}",
+                    day, open, high, low, close, 20_000_000 + random.nextInt(60_000_000)));
+            close = Math.max(1, open);
+            day = day.minusDays(1);
+        }
+        json.append("],\"status\":\"ok\"}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static PriceSeries dailySeries(int bars) {
+        Random random = new Random(bars);
+        PriceSeries.Builder builder = PriceSeries.builder(bars).interval("1day");
+        LocalDate day = LocalDate.of(2024, 5, 17).minusDays(bars);
+        double close = 100;
+        for (int i = 0; i < bars; i++) {
+            double open = close;
+            close = Math.max(1, close * (1 + random.nextGaussian() * 0.015));
+            builder.add(day.plusDays(i).toEpochDay() * 86_400, open,
+                    Math.max(open, close) * (1 + random.nextDouble() * 0.01),
+                    Math.min(open, close) * (1 - random.nextDouble() * 0.01),
+                    close, 20_000_000 + random.nextInt(60_000_000));
+        }
+        return builder.build();
+    }
+}
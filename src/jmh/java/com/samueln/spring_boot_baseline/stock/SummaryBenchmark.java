@@ -0,0 +1,71 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samueln.spring_boot_baseline.stock.dto.Indicators;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The CPU work of building and encoding a summary once its upstream data is
+ * loaded: indicators, the chart window and downsampling, and serialization.
+ */
+@State(Scope.Benchmark)
+public class SummaryBenchmark {
+
+    @Param({"15", "250", "1000", "5000", "10000"})
+    public int bars;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PriceSeries daily;
+    private StockSummary summary;
+
+    @Setup
+    public void setUp() {
+        daily = BenchmarkPayloads.dailySeries(bars);
+        summary = StockSummary.builder()
+                .symbol("AAPL")
+                .companyName("Apple Inc")
+                .exchange("NASDAQ")
+                .sector("Technology")
+                .timeline(Timeline.ONE_YEAR.label())
+                .price(189.84)
+                .dailyChange(1.25)
+                .dailyChangePercent(0.66)
+                .marketCap(2_913_473_567_232d)
+                .week52High(199.62)
+                .week52Low(164.08)
+                .yearStartPrice(185.64)
+                .indicators(new IndicatorEngine().update(daily))
+                .description("Apple Inc. designs, manufactures, and markets smartphones, personal computers, "
+                        + "tablets, wearables, and accessories worldwide.")
+                .priceSeries(chart())
+                .partial(false)
+                .build();
+    }
+
+    @Benchmark
+    public Indicators computeIndicators() {
+        return new IndicatorEngine().update(daily);
+    }
+
+    @Benchmark
+    public PriceSeries chart() {
+        return PriceSeriesDownsampler.lttb(Timeline.FIVE_YEARS.window(daily), StockService.DEFAULT_POINTS);
+    }
+
+    @Benchmark
+    public byte[] serializeSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summary);
+    }
+
+    @Benchmark
+    public byte[] encodeSeriesBinary() {
+        return summary.priceSeries().toBinary();
+    }
+}
@@ -0,0 +1,56 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.SymbolMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Typeahead queries against a search index of listed-market size: a short
+ * symbol prefix, a company name, a multi-word name and a typo.
+ */
+@State(Scope.Benchmark)
+public class SymbolSearchBenchmark {
+
+    private static final String[] NAME_WORDS = {"Alpha", "American", "Bank", "Beta", "Bio", "Capital",
+            "Digital", "Energy", "First", "Global", "Holdings", "Medical", "Micro", "National", "Pharma",
+            "Resources", "Solar", "Systems", "Tech", "United"};
+
+    @Param({"10000", "100000"})
+    public int symbols;
+
+    @Param({"A", "micro", "bank of am", "microsft"})
+    public String query;
+
+    private SymbolSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, String> names = new HashMap<>();
+        names.put("AAPL", "Apple Inc.");
+        names.put("BAC", "Bank of America Corporation");
+        names.put("MSFT", "Microsoft Corporation");
+        while (names.size() < symbols) {
+            StringBuilder symbol = new StringBuilder();
+            for (int i = 1 + random.nextInt(5); i > 0; i--) {
+                symbol.append((char) ('A' + random.nextInt(26)));
+            }
+            names.putIfAbsent(symbol.toString(), NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " "
+                    + NAME_WORDS[random.nextInt(NAME_WORDS.length)] + (char) ('a' + random.nextInt(26)) + " Inc");
+        }
+        index = SymbolSearchIndex.build(names);
+    }
+
+    @Benchmark
+    public List<SymbolMatch> search() {
+        return index.search(query, 10);
+    }
+}
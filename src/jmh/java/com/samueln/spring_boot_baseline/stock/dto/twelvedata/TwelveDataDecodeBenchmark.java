@@ -0,0 +1,65 @@
+package com.samueln.spring_boot_baseline.stock.dto.twelvedata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samueln.spring_boot_baseline.stock.BenchmarkPayloads;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoding of the three Twelve Data responses a summary needs. Only the time
+ * series benchmark is sized; quotes and profiles are a single small object.
+ */
+@State(Scope.Benchmark)
+public class TwelveDataDecodeBenchmark {
+
+    private static final List<String> SYMBOLS = List.of("AAPL");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] quote = BenchmarkPayloads.QUOTE_JSON.getBytes(StandardCharsets.UTF_8);
+    private final byte[] profile = BenchmarkPayloads.PROFILE_JSON.getBytes(StandardCharsets.UTF_8);
+    private final char[] decimal = "189.84000".toCharArray();
+
+    @State(Scope.Benchmark)
+    public static class TimeSeriesPayload {
+
+        @Param({"15", "250", "1000", "5000", "10000"})
+        public int bars;
+
+        byte[] json;
+
+        @Setup
+        public void setUp() {
+            json = BenchmarkPayloads.timeSeriesJson(bars);
+        }
+    }
+
+    @Benchmark
+    public Map<String, PriceSeries> decodeTimeSeries(TimeSeriesPayload payload) throws IOException {
+        return TwelveDataTimeSeriesDecoder.decode(new ByteArrayInputStream(payload.json), SYMBOLS);
+    }
+
+    @Benchmark
+    public TwelveDataQuote readQuote() throws IOException {
+        return objectMapper.readValue(quote, TwelveDataQuote.class);
+    }
+
+    @Benchmark
+    public TwelveDataProfile readProfile() throws IOException {
+        return objectMapper.readValue(profile, TwelveDataProfile.class);
+    }
+
+    @Benchmark
+    public double parseDecimal() {
+        return TwelveDataTimeSeriesDecoder.parseDecimal(decimal, 0, decimal.length);
+    }
+}
@@ -0,0 +1,117 @@
+package com.samueln.spring_boot_baseline.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Drives requests at a fixed arrival rate, independent of how fast the server
+ * answers (an open workload model).
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate} and is sent on its own
+ * virtual thread, so a slow response never delays the next arrival. Latency is
+ * measured from the due time rather than the send time, so any scheduling lag
+ * counts against the server instead of being hidden (coordinated omission).
+ */
+public final class OpenModelLoad {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public OpenModelLoad(String baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Sends {@code rate * duration} GET requests, the path of request {@code i}
+     * given by {@code paths}, and waits for all of them to finish.
+     */
+    public Report run(String name, double rate, Duration duration, IntFunction<String> paths) {
+        int total = (int) Math.max(1, Math.round(rate * duration.toNanos() / 1e9));
+        long intervalNanos = (long) (1e9 / rate);
+        long[] latencies = new long[total];
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int index = i;
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + paths.apply(i)))
+                        .timeout(requestTimeout)
+                        .GET()
+                        .build();
+                executor.execute(() -> {
+                    boolean ok;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        ok = response.statusCode() < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    latencies[index] = System.nanoTime() - due;
+                    if (!ok) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return Report.of(name, rate, total, failures.get(), elapsed, latencies);
+    }
+
+    /**
+     * Outcome of one run. Percentiles include failed requests, since a fast error is
+     * still a response the client waited for.
+     */
+    public record Report(String name, double targetRate, int requests, int failures, double throughput,
+            double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        static Report of(String name, double rate, int requests, int failures, long elapsedNanos,
+                long[] latencies) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return new Report(name, rate, requests, failures, requests / (elapsedNanos / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        public String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"targetRate\":%.1f,\"requests\":%d,\"failures\":%d,\"throughput\":%.2f,"
+                            + "\"p50Millis\":%.3f,\"p99Millis\":%.3f,\"p999Millis\":%.3f,\"maxMillis\":%.3f}",
+                    name, targetRate, requests, failures, throughput, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-20s %7.1f req/s target, %7.1f req/s achieved, %d requests, %d failed, "
+                            + "p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms",
+                    name, targetRate, throughput, requests, failures, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+    }
+}
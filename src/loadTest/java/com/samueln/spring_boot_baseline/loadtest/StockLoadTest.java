@@ -0,0 +1,172 @@
+package com.samueln.spring_boot_baseline.loadtest;
+
+import com.samueln.spring_boot_baseline.loadtest.OpenModelLoad.Report;
+import com.samueln.spring_boot_baseline.user.FavoriteStockEntity;
+import com.samueln.spring_boot_baseline.user.FavoriteStockRepository;
+import com.samueln.spring_boot_baseline.user.UserEntity;
+import com.samueln.spring_boot_baseline.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the running application at a fixed arrival rate against
+ * {@link TwelveDataStub}, so results reflect realistic upstream delay without
+ * network access or API credits.
+ * <p>
+ * Run with {@code ./gradlew loadTest}. Every setting is a {@code loadtest.*}
+ * Gradle property, for example
+ * {@code ./gradlew loadTest -Ploadtest.rate=200 -Ploadtest.stub.latency=300ms}.
+ * A report per scenario is printed and written as JSON to the report directory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class StockLoadTest {
+
+    private static final double RATE = Double.parseDouble(setting("rate", "50"));
+    private static final Duration DURATION = duration("duration", "30s");
+    private static final Duration WARMUP = duration("warmup", "5s");
+    private static final int SYMBOLS = Integer.parseInt(setting("symbols", "200"));
+    private static final int USERS = Integer.parseInt(setting("users", "50"));
+    private static final int FAVORITES_PER_USER = Integer.parseInt(setting("favorites-per-user", "10"));
+    private static final double MAX_FAILURE_RATE = Double.parseDouble(setting("max-failure-rate", "0.05"));
+    private static final Path REPORT_DIR = Path.of(setting("report-dir", "build/reports/loadtest"));
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static TwelveDataStub stub;
+    private static final List<Report> reports = new ArrayList<>();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FavoriteStockRepository favoriteStockRepository;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) throws IOException {
+        stub = TwelveDataStub.start(duration("stub.latency", "150ms"), duration("stub.jitter", "100ms"),
+                Double.parseDouble(setting("stub.error-rate", "0.01")));
+        registry.add("twelvedata.base-url", stub::baseUrl);
+        registry.add("twelvedata.api.key", () -> "load-test");
+        // The stub has no plan limit; keep the client-side limiter out of the measurement.
+        registry.add("twelvedata.credits-per-minute", () -> "1000000");
+        registry.add("twelvedata.prewarm.enabled", () -> "false");
+        registry.add("twelvedata.search.fetch-symbol-list", () -> "false");
+    }
+
+    @BeforeAll
+    static void createReportDir() throws IOException {
+        Files.createDirectories(REPORT_DIR);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        stub.close();
+        Files.writeString(REPORT_DIR.resolve("results.json"),
+                reports.stream().map(Report::toJson).collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+    }
+
+    @Test
+    void summaries() {
+        List<String> symbols = symbols();
+        // Skewed towards the first symbols, like real traffic where a hot set dominates.
+        Random random = new Random(1);
+        record(run("summary", i -> "/api/stock/summary?symbol="
+                + symbols.get((int) (Math.pow(random.nextDouble(), 3) * symbols.size()))));
+    }
+
+    @Test
+    void favorites() {
+        List<UUID> users = seedUsers();
+        record(run("favorites", i -> "/api/users/" + users.get(i % users.size()) + "/favorites"));
+        record(run("favorite-summaries",
+                i -> "/api/users/" + users.get(i % users.size()) + "/favorites/summaries"));
+    }
+
+    private Report run(String name, IntFunction<String> paths) {
+        OpenModelLoad load = new OpenModelLoad("http://localhost:" + port, Duration.ofSeconds(10));
+        if (!WARMUP.isZero()) {
+            load.run(name + "-warmup", RATE, WARMUP, paths);
+        }
+        long upstreamBefore = stub.requests();
+        Report report = load.run(name, RATE, DURATION, paths);
+        System.out.printf("%s (%d upstream requests)%n", report, stub.requests() - upstreamBefore);
+        return report;
+    }
+
+    private void record(Report report) {
+        reports.add(report);
+        assertThat(report.failures()).as("failed requests in %s", report.name())
+                .isLessThanOrEqualTo((int) (report.requests() * MAX_FAILURE_RATE));
+    }
+
+    private List<UUID> seedUsers() {
+        favoriteStockRepository.deleteAll();
+        userRepository.deleteAll();
+        List<String> symbols = symbols();
+        Random random = new Random(2);
+        List<UUID> ids = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            UserEntity user = userRepository.save(UserEntity.builder()
+                    .username("load-" + u)
+                    .email("load-" + u + "@example.com")
+                    .build());
+            List<FavoriteStockEntity> favorites = random.ints(0, symbols.size())
+                    .distinct()
+                    .limit(Math.min(FAVORITES_PER_USER, symbols.size()))
+                    .mapToObj(index -> FavoriteStockEntity.builder().user(user).symbol(symbols.get(index)).build())
+                    .toList();
+            favoriteStockRepository.saveAll(favorites);
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Three-letter symbols, AAA, AAB and so on.
+     */
+    private static List<String> symbols() {
+        List<String> symbols = new ArrayList<>(SYMBOLS);
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols.add("" + (char) ('A' + i / 676 % 26) + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26));
+        }
+        return symbols;
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(setting(name, defaultValue));
+    }
+}
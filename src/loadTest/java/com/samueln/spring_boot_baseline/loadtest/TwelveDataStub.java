@@ -0,0 +1,230 @@
+package com.samueln.spring_boot_baseline.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local stand-in for the Twelve Data API serving {@code quote}, {@code profile}
+ * and {@code time_series} in the upstream's shape, including multi-symbol
+ * responses keyed by symbol.
+ * <p>
+ * Every response is delayed by {@code latency} plus a uniformly random share of
+ * {@code jitter}, and a fraction {@code errorRate} of requests fail with a 503.
+ * Requests are handled on virtual threads, so the delay does not cap throughput.
+ * Responses are gzip-compressed when the request accepts it, as upstream does.
+ * Prices are derived from the symbol, so repeated calls return consistent data.
+ */
+public final class TwelveDataStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private TwelveDataStub(Duration latency, Duration jitter, double errorRate) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1_024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/quote", exchange -> respond(exchange, this::quotes));
+        server.createContext("/profile", exchange -> respond(exchange, this::profile));
+        server.createContext("/time_series", exchange -> respond(exchange, this::timeSeries));
+    }
+
+    public static TwelveDataStub start(Duration latency, Duration jitter, double errorRate) throws IOException {
+        TwelveDataStub stub = new TwelveDataStub(latency, jitter, errorRate);
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, ResponseBody body) throws IOException {
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(delay());
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] bytes = body.render(query(exchange)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            if (acceptsGzip(exchange)) {
+                bytes = gzip(bytes);
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Duration delay() {
+        long jitterNanos = jitter.toNanos();
+        return jitterNanos == 0
+                ? latency
+                : latency.plusNanos(ThreadLocalRandom.current().nextLong(jitterNanos + 1));
+    }
+
+    private String quotes(Map<String, String> query) {
+        return keyed(query.get("symbol"), this::quote);
+    }
+
+    private String quote(String symbol) {
+        double close = basePrice(symbol);
+        double previous = close * 0.99;
+        return String.format(Locale.ROOT, """
+                {"symbol":"%s","name":"%s Inc","exchange":"NASDAQ","currency":"USD","datetime":"%s",\
+                "open":"%.5f","high":"%.5f","low":"%.5f","close":"%.5f","volume":"41282925",\
+                "previous_close":"%.5f","change":"%.5f","percent_change":"%.5f"}""",
+                symbol, symbol, LocalDate.now(), previous, close * 1.01, previous * 0.99, close, previous,
+                close - previous, (close - previous) / previous * 100);
+    }
+
+    private String profile(Map<String, String> query) {
+        String symbol = query.get("symbol");
+        return String.format(Locale.ROOT, """
+                {"symbol":"%s","name":"%s Inc","exchange":"NASDAQ","sector":"Technology",\
+                "industry":"Software","description":"%s designs and sells things.","website":"https://example.com",\
+                "country":"United States","currency":"USD","market_cap":"%.0f"}""",
+                symbol, symbol, symbol, basePrice(symbol) * 1e9);
+    }
+
+    private String timeSeries(Map<String, String> query) {
+        String interval = query.getOrDefault("interval", "1day");
+        int outputSize = Integer.parseInt(query.getOrDefault("outputsize", "30"));
+        LocalDate startDate = query.containsKey("start_date") ? LocalDate.parse(query.get("start_date")) : null;
+        return keyed(query.get("symbol"), symbol -> series(symbol, interval, outputSize, startDate));
+    }
+
+    private String series(String symbol, String interval, int outputSize, LocalDate startDate) {
+        boolean intraday = interval.endsWith("min");
+        LocalDateTime time = intraday
+                ? LocalDateTime.now().withSecond(0).withNano(0)
+                : LocalDate.now().atStartOfDay();
+        Duration step = intraday
+                ? Duration.ofMinutes(Long.parseLong(interval.replace("min", "")))
+                : Duration.ofDays(1);
+        StringBuilder json = new StringBuilder(outputSize * 120 + 256)
+                .append("{\"meta\":{\"symbol\":\"").append(symbol).append("\",\"interval\":\"").append(interval)
+                .append("\",\"currency\":\"USD\",\"exchange\":\"NASDAQ\",\"type\":\"Common Stock\"},\"values\":[");
+        double close = basePrice(symbol);
+        for (int i = 0; i < outputSize; i++) {
+            if (startDate != null && time.toLocalDate().isBefore(startDate)) {
+                break;
+            }
+            double open = close * (1 + Math.sin(i * 0.37) * 0.01);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"datetime\":\"%s\",\"open\":\"%.5f\",\"high\":\"%.5f\",\"low\":\"%.5f\",\"close\":\"%.5f\","
+                            + "\"volume\":\"%d\"}",
+                    intraday ? time.toString().replace('T', ' ') + ":00" : time.toLocalDate().toString(),
+                    open, Math.max(open, close) * 1.005, Math.min(open, close) * 0.995, close,
+                    1_000_000 + (i * 7_919L) % 5_000_000));
+            close = open;
+            time = time.minus(step);
+        }
+        return json.append("],\"status\":\"ok\"}").toString();
+    }
+
+    /**
+     * A bare object for one symbol and an object keyed by symbol for several, as
+     * Twelve Data answers.
+     */
+    private static String keyed(String symbols, Function<String, String> render) {
+        String[] split = symbols.split(",");
+        if (split.length == 1) {
+            return render.apply(split[0]);
+        }
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < split.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(split[i]).append("\":").append(render.apply(split[i]));
+        }
+        return json.append('}').toString();
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accepted != null && accepted.contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static double basePrice(String symbol) {
+        return 20 + Math.floorMod(symbol.hashCode(), 480);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(pair.substring(0, equals),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        String render(Map<String, String> query);
+    }
+}
@@ -0,0 +1,137 @@
+package com.samueln.spring_boot_baseline.loadtest;
+
+import com.samueln.spring_boot_baseline.user.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput with random (version 4) against time-ordered (version 7)
+ * UUID primary keys, into a table shaped like {@code favorite_stock} that grows
+ * well past what shared buffers hold.
+ * <p>
+ * Run with {@code ./gradlew loadTest --tests UuidInsertLoadTest}, sized with
+ * {@code loadtest.uuid.rows}, {@code loadtest.uuid.batch-size} and
+ * {@code loadtest.uuid.shared-buffers}. Throughput is reported overall and for
+ * the last tenth of the rows, when the table is largest, together with the
+ * primary key index size and the WAL written. The report is written as JSON to
+ * the report directory.
+ */
+@Testcontainers
+class UuidInsertLoadTest {
+
+    private static final int ROWS = Integer.parseInt(setting("uuid.rows", "1000000"));
+    private static final int BATCH_SIZE = Integer.parseInt(setting("uuid.batch-size", "1000"));
+    private static final String SHARED_BUFFERS = setting("uuid.shared-buffers", "32MB");
+    private static final int SEGMENTS = 10;
+    private static final Path REPORT_DIR = Path.of(setting("report-dir", "build/reports/loadtest"));
+
+    // Replaces the Testcontainers default of fsync=off, so WAL costs what it does in production.
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=" + SHARED_BUFFERS);
+
+    @Test
+    void randomAgainstTimeOrderedKeys() throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(postgres.getJdbcUrl(),
+                postgres.getUsername(), postgres.getPassword(), true));
+
+        Result random = insert(jdbcTemplate, "v4", UUID::randomUUID);
+        Result timeOrdered = insert(jdbcTemplate, "v7", UuidV7::generate);
+        System.out.println(random);
+        System.out.println(timeOrdered);
+
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("uuid-inserts.json"), Stream.of(random, timeOrdered)
+                .map(Result::toJson)
+                .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+        // Appending keys fill index pages; random keys split them and leave them part empty.
+        assertThat(timeOrdered.indexMegabytes()).isLessThan(random.indexMegabytes());
+    }
+
+    private static Result insert(JdbcTemplate jdbcTemplate, String name, Supplier<UUID> ids) {
+        String table = "favorite_stock_" + name;
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                + "symbol varchar(255) NOT NULL, added_at timestamp NOT NULL)");
+        String insert = "INSERT INTO " + table + " (id, user_id, symbol, added_at) VALUES (?, ?, ?, ?)";
+        List<UUID> users = Stream.generate(UuidV7::generate).limit(10_000).toList();
+        Random random = new Random(1);
+
+        jdbcTemplate.execute("CHECKPOINT");
+        String walStart = jdbcTemplate.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+        long start = System.nanoTime();
+        double lastSegmentThroughput = 0;
+        int inserted = 0;
+        for (int segment = 1; segment <= SEGMENTS; segment++) {
+            long segmentStart = System.nanoTime();
+            int segmentEnd = (int) ((long) ROWS * segment / SEGMENTS);
+            int segmentRows = segmentEnd - inserted;
+            while (inserted < segmentEnd) {
+                List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE && inserted < segmentEnd; i++, inserted++) {
+                    rows.add(new Object[] {ids.get(), users.get(random.nextInt(users.size())),
+                            symbol(random.nextInt(17_576)), LocalDateTime.now()});
+                }
+                jdbcTemplate.batchUpdate(insert, rows);
+            }
+            lastSegmentThroughput = segmentRows / ((System.nanoTime() - segmentStart) / 1e9);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Double walBytes = jdbcTemplate.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)",
+                Double.class, walStart);
+        Long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class,
+                table + "_pkey");
+        jdbcTemplate.execute("DROP TABLE " + table);
+        return new Result(name, ROWS, ROWS / seconds, lastSegmentThroughput, indexBytes / 1048576.0,
+                walBytes / 1048576.0);
+    }
+
+    /**
+     * Three-letter symbols, AAA, AAB and so on.
+     */
+    private static String symbol(int index) {
+        return "" + (char) ('A' + index / 676 % 26) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    record Result(String name, int rows, double throughput, double lastSegmentThroughput, double indexMegabytes,
+            double walMegabytes) {
+
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"rows\":%d,\"throughput\":%.2f,\"lastSegmentThroughput\":%.2f,"
+                            + "\"indexMegabytes\":%.2f,\"walMegabytes\":%.2f}",
+                    name, rows, throughput, lastSegmentThroughput, indexMegabytes, walMegabytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-4s %d rows, %8.0f rows/s, %8.0f rows/s over the last tenth, "
+                            + "primary key %.1f MB, WAL %.1f MB",
+                    name, rows, throughput, lastSegmentThroughput, indexMegabytes, walMegabytes);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.samueln.spring_boot_baseline.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters Spring Boot does not register on its own. Session-level Hibernate
+ * statistics and repository invocation timers are auto-configured; this adds
+ * per-query timings, tagged with the HQL, for the repository queries.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateQueryMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory",
+                Tags.empty());
+    }
+}
@@ -0,0 +1,165 @@
+package com.samueln.spring_boot_baseline.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * The HTTP client used for Twelve Data, separate from the application-wide
+ * {@link RestClient.Builder} defaults.
+ * <p>
+ * It runs on the JDK {@link HttpClient}, which keeps connections alive and reuses
+ * them across requests, and multiplexes concurrent requests over one connection
+ * when the server negotiates HTTP/2. Responses are requested gzip-compressed and
+ * inflated while they are decoded.
+ * <p>
+ * The JDK client does not expose its connection pool, so the
+ * {@code twelvedata.http.in-flight} gauge reports exchanges holding a connection
+ * (or an HTTP/2 stream) instead: requests sent whose response body is not yet
+ * closed.
+ */
+@Configuration
+public class TwelveDataHttpConfig {
+
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Bean
+    public HttpClient twelveDataHttpClient(@Value("${twelvedata.http.version}") HttpClient.Version version,
+            @Value("${twelvedata.http.connect-timeout}") Duration connectTimeout,
+            @Value("${twelvedata.http.keep-alive}") Duration keepAlive) {
+        // JVM-wide and read once, when the first JDK client is built; an explicit -D flag wins.
+        if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(keepAlive.toSeconds()));
+        }
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    public RestClient twelveDataRestClient(RestClient.Builder builder, HttpClient twelveDataHttpClient,
+            @Value("${twelvedata.http.read-timeout}") Duration readTimeout,
+            MeterRegistry meterRegistry) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(twelveDataHttpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("twelvedata.http.in-flight", inFlight, AtomicInteger::get)
+                .description("Twelve Data exchanges holding a connection or stream")
+                .register(meterRegistry);
+
+        return builder.requestFactory(requestFactory)
+                .requestInterceptor(new GzipInterceptor(inFlight))
+                // Calls are timed by TwelveDataClient instead: the generic client observation
+                // would tag each request with its full URL, API key included.
+                .observationRegistry(ObservationRegistry.NOOP)
+                .build();
+    }
+
+    /**
+     * Asks for a gzip-compressed response and inflates it transparently, and counts
+     * the exchange as in flight until its response is closed.
+     */
+    static final class GzipInterceptor implements ClientHttpRequestInterceptor {
+
+        private final AtomicInteger inFlight;
+
+        GzipInterceptor(AtomicInteger inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+                throws IOException {
+            if (request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING) == null) {
+                request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            inFlight.incrementAndGet();
+            try {
+                return new InflatingResponse(execution.execute(request, body), inFlight);
+            } catch (IOException | RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    private static final class InflatingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final AtomicInteger inFlight;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final boolean gzip;
+        private HttpHeaders headers;
+        private InputStream body;
+
+        InflatingResponse(ClientHttpResponse delegate, AtomicInteger inFlight) {
+            this.delegate = delegate;
+            this.inFlight = inFlight;
+            this.gzip = "gzip".equalsIgnoreCase(delegate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            if (!gzip) {
+                return delegate.getHeaders();
+            }
+            if (headers == null) {
+                // Describe the body as callers read it: inflated, with an unknown length.
+                HttpHeaders inflated = new HttpHeaders();
+                inflated.putAll(delegate.getHeaders());
+                inflated.remove(HttpHeaders.CONTENT_ENCODING);
+                inflated.remove(HttpHeaders.CONTENT_LENGTH);
+                headers = inflated;
+            }
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = delegate.getBody();
+                body = gzip ? new GZIPInputStream(raw, 8_192) : raw;
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                delegate.close();
+            }
+        }
+    }
+}
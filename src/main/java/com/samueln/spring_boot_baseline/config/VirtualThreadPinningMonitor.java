@@ -0,0 +1,91 @@
+package com.samueln.spring_boot_baseline.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs where virtual threads pin their carrier thread, from the JDK's
+ * {@code jdk.VirtualThreadPinned} JFR event.
+ * <p>
+ * A pinned virtual thread blocks its carrier, so enough of them starve every other
+ * request. Since JDK 24 {@code synchronized} no longer pins, but native frames,
+ * class initialization and some driver code still do. Each pinning site is logged
+ * with its stack at most once per {@code log-interval}; the
+ * {@code jvm.threads.virtual.pinned} meter counts every occurrence.
+ */
+@Component
+@ConditionalOnProperty(name = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Duration threshold;
+    private final long logIntervalNanos;
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${virtual-threads.pinning.threshold}") Duration threshold,
+            @Value("${virtual-threads.pinning.log-interval}") Duration logInterval) {
+        this.threshold = threshold;
+        this.logIntervalNanos = logInterval.toNanos();
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::report);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String stack = stackTrace == null ? "  (no stack trace)" : stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n"));
+        String site = stack.lines().findFirst().orElse("");
+        long now = System.nanoTime();
+        Long previous = lastLogged.get(site);
+        if (previous != null && now - previous < logIntervalNanos) {
+            return;
+        }
+        lastLogged.put(site, now);
+        logger.warn("Virtual thread pinned its carrier for {} ms:\n{}", event.getDuration().toMillis(), stack);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "  at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -0,0 +1,137 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count-based circuit breaker for one upstream endpoint.
+ * <p>
+ * While closed it keeps the results of the last {@code windowSize} calls and opens
+ * once at least {@code minimumCalls} of them were recorded and the share of
+ * failures reaches {@code failureRateThreshold}. While open every call is rejected
+ * without reaching upstream. After {@code openDuration} it lets one probe call
+ * through (half-open): a success closes it, a failure opens it again. If the probe
+ * reports nothing within another {@code openDuration}, the next call probes instead.
+ * <p>
+ * Only faults that say the endpoint is degraded should be recorded as failures:
+ * server errors and timeouts, not client errors or throttling.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private long retryAt;
+    private int next;
+    private int recorded;
+    private int failed;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Whether a call may go upstream now. When it does, its result must be reported
+     * with {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - retryAt < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            retryAt = now + openNanos;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> record(false);
+                case HALF_OPEN -> close();
+                // A call admitted before the breaker opened; the probe decides.
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            switch (state) {
+                case CLOSED -> {
+                    record(true);
+                    if (recorded >= minimumCalls && failed >= failureRateThreshold * recorded) {
+                        open();
+                    }
+                }
+                case HALF_OPEN -> open();
+                case OPEN -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        retryAt = System.nanoTime() + openNanos;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failed = 0;
+    }
+}
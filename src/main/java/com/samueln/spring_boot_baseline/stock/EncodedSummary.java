@@ -0,0 +1,8 @@
+package com.samueln.spring_boot_baseline.stock;
+
+/**
+ * A summary already serialized to UTF-8 JSON and gzip, with a strong ETag for each
+ * representation. The gzip ETag differs because it identifies different bytes.
+ */
+public record EncodedSummary(String symbol, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+}
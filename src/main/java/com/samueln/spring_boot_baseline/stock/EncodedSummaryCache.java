@@ -0,0 +1,110 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized summaries, kept for as long as the quote they contain is fresh so
+ * repeated polls are answered from bytes instead of rebuilding and re-encoding the
+ * summary. The ETag is a hash of the JSON, so a rebuilt summary with unchanged
+ * content keeps its ETag and clients keep getting 304s.
+ * <p>
+ * Partial and stale summaries are served but not kept, so the next request
+ * retries the missing profile or the failed upstream call.
+ */
+@Component
+public class EncodedSummaryCache {
+
+    private static final int ETAG_BYTES = 16;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, EncodedSummary> summaries;
+    private final DistributionSummary jsonSize;
+    private final DistributionSummary gzipSize;
+
+    public EncodedSummaryCache(ObjectMapper objectMapper,
+            @Value("${twelvedata.cache.max-symbols}") long maxSymbols,
+            @Value("${twelvedata.cache.quote-ttl}") Duration quoteTtl,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.summaries = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(quoteTtl)
+                .recordStats()
+                .<String, EncodedSummary>build(), "stock.encoded-summaries");
+        this.jsonSize = summarySize(meterRegistry, "json");
+        this.gzipSize = summarySize(meterRegistry, "gzip");
+    }
+
+    /**
+     * Returns the encoded summary of an already normalized symbol for one timeline
+     * and point budget, building it with {@code builder} when it is not cached.
+     */
+    public EncodedSummary get(String symbol, Timeline timeline, int points, Supplier<StockSummary> builder) {
+        String key = symbol + "/" + timeline.label() + "/" + points;
+        EncodedSummary cached = summaries.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        StockSummary summary = builder.get();
+        EncodedSummary encoded = encode(symbol, summary);
+        if (!summary.partial() && !summary.stale()) {
+            summaries.put(key, encoded);
+        }
+        return encoded;
+    }
+
+    private EncodedSummary encode(String symbol, StockSummary summary) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(summary);
+            byte[] compressed = gzip(json);
+            jsonSize.record(json.length);
+            gzipSize.record(compressed.length);
+            String hash = HexFormat.of().formatHex(
+                    Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(json), ETAG_BYTES));
+            return new EncodedSummary(symbol, json, compressed, "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize summary for " + symbol, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static DistributionSummary summarySize(MeterRegistry registry, String encoding) {
+        return DistributionSummary.builder("stock.summary.size")
+                .description("Size of encoded summaries")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,320 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.Indicators;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+
+import java.util.Arrays;
+
+/**
+ * Incremental technical indicators over one symbol's daily bars.
+ * <p>
+ * Every indicator is kept as running state: monotonic deques for the rolling
+ * 52-week high and low, ring buffers with running sums for the moving averages,
+ * volatility and VWAP, and Wilder smoothing for RSI. Adding a bar is O(1)
+ * amortized, so the first update is one pass over the history and later updates
+ * only feed the bars that are new since the last one.
+ * <p>
+ * Like stored history, every bar but the newest is treated as final. The newest
+ * bar is still forming and is never committed; it is folded into each snapshot
+ * on the fly instead, so it can change between updates without undoing state.
+ */
+public final class IndicatorEngine {
+
+    private static final long WEEK_52_SECONDS = 52 * 7 * 86_400L;
+    private static final int SMA_SHORT = 50;
+    private static final int SMA_LONG = 200;
+    private static final int EMA_PERIOD = 20;
+    private static final int RSI_PERIOD = 14;
+    private static final int VOLATILITY_PERIOD = 20;
+    private static final int VWAP_PERIOD = 20;
+    private static final double TRADING_DAYS = 252;
+    private static final double EMA_ALPHA = 2.0 / (EMA_PERIOD + 1);
+
+    private final MonotonicWindow highs = new MonotonicWindow(true);
+    private final MonotonicWindow lows = new MonotonicWindow(false);
+    private final RollingSum shortCloses = new RollingSum(SMA_SHORT);
+    private final RollingSum longCloses = new RollingSum(SMA_LONG);
+    private final RollingSum returns = new RollingSum(VOLATILITY_PERIOD);
+    private final RollingSum squaredReturns = new RollingSum(VOLATILITY_PERIOD);
+    private final RollingSum tradedValue = new RollingSum(VWAP_PERIOD);
+    private final RollingSum tradedVolume = new RollingSum(VWAP_PERIOD);
+
+    private int count;
+    private long lastTime = Long.MIN_VALUE;
+    private double lastClose;
+    // EMA and RSI are seeded with simple averages over their first period.
+    private double emaSeed;
+    private double ema;
+    private double gainSeed;
+    private double lossSeed;
+    private double averageGain;
+    private double averageLoss;
+
+    /**
+     * Commits the bars of {@code daily} that are new since the previous update and
+     * returns the indicators as of its newest bar. A series that no longer extends
+     * the committed bars, such as a history that was rewritten, starts over.
+     */
+    public synchronized Indicators update(PriceSeries daily) {
+        if (daily.isEmpty()) {
+            return Indicators.builder().build();
+        }
+        if (daily.time(daily.size() - 1) <= lastTime) {
+            reset();
+        }
+        PriceSeries fresh = count == 0 ? daily : daily.since(lastTime + 1);
+        for (int i = 0; i < fresh.size() - 1; i++) {
+            commit(fresh.time(i), fresh.high(i), fresh.low(i), fresh.close(i), fresh.volume(i));
+        }
+        int newest = fresh.size() - 1;
+        return snapshot(fresh.time(newest), fresh.high(newest), fresh.low(newest), fresh.close(newest),
+                fresh.volume(newest));
+    }
+
+    private void commit(long time, double high, double low, double close, long volume) {
+        highs.add(time, high);
+        lows.add(time, low);
+        shortCloses.add(close);
+        longCloses.add(close);
+        tradedValue.add(typicalPrice(high, low, close) * volume);
+        tradedVolume.add(volume);
+
+        if (count < EMA_PERIOD) {
+            emaSeed += close;
+            if (count == EMA_PERIOD - 1) {
+                ema = emaSeed / EMA_PERIOD;
+            }
+        } else {
+            ema += EMA_ALPHA * (close - ema);
+        }
+
+        if (count > 0) {
+            double logReturn = Math.log(close / lastClose);
+            returns.add(logReturn);
+            squaredReturns.add(logReturn * logReturn);
+
+            double change = close - lastClose;
+            int changes = count;
+            if (changes <= RSI_PERIOD) {
+                gainSeed += Math.max(change, 0);
+                lossSeed += Math.max(-change, 0);
+                if (changes == RSI_PERIOD) {
+                    averageGain = gainSeed / RSI_PERIOD;
+                    averageLoss = lossSeed / RSI_PERIOD;
+                }
+            } else {
+                averageGain = smooth(averageGain, Math.max(change, 0));
+                averageLoss = smooth(averageLoss, Math.max(-change, 0));
+            }
+        }
+
+        count++;
+        lastTime = time;
+        lastClose = close;
+    }
+
+    /**
+     * The indicators with the forming bar folded in, without committing it. Only
+     * values that have left the 52-week window are dropped.
+     */
+    private Indicators snapshot(long time, double high, double low, double close, long volume) {
+        long windowStart = time - WEEK_52_SECONDS + 1;
+        int bars = count + 1;
+
+        double emaValue = Double.NaN;
+        if (bars == EMA_PERIOD) {
+            emaValue = (emaSeed + close) / EMA_PERIOD;
+        } else if (bars > EMA_PERIOD) {
+            emaValue = ema + EMA_ALPHA * (close - ema);
+        }
+
+        double rsi = Double.NaN;
+        double volatility = Double.NaN;
+        if (count > 0) {
+            double change = close - lastClose;
+            double gain;
+            double loss;
+            if (count == RSI_PERIOD) {
+                gain = (gainSeed + Math.max(change, 0)) / RSI_PERIOD;
+                loss = (lossSeed + Math.max(-change, 0)) / RSI_PERIOD;
+            } else {
+                gain = smooth(averageGain, Math.max(change, 0));
+                loss = smooth(averageLoss, Math.max(-change, 0));
+            }
+            if (count >= RSI_PERIOD) {
+                rsi = loss == 0 ? (gain == 0 ? 50 : 100) : 100 - 100 / (1 + gain / loss);
+            }
+
+            double logReturn = Math.log(close / lastClose);
+            double mean = returns.sumWith(logReturn) / VOLATILITY_PERIOD;
+            double variance = (squaredReturns.sumWith(logReturn * logReturn) - VOLATILITY_PERIOD * mean * mean)
+                    / (VOLATILITY_PERIOD - 1);
+            volatility = Math.sqrt(Math.max(variance, 0) * TRADING_DAYS);
+        }
+
+        double volumeSum = tradedVolume.sumWith(volume);
+        double vwap = volumeSum > 0
+                ? tradedValue.sumWith(typicalPrice(high, low, close) * volume) / volumeSum
+                : Double.NaN;
+
+        return Indicators.builder()
+                .week52High(highs.extreme(windowStart, high))
+                .week52Low(lows.extreme(windowStart, low))
+                .sma50(present(shortCloses.sumWith(close) / SMA_SHORT))
+                .sma200(present(longCloses.sumWith(close) / SMA_LONG))
+                .ema20(present(emaValue))
+                .rsi14(present(rsi))
+                .volatility20(present(volatility))
+                .vwap20(present(vwap))
+                .build();
+    }
+
+    private void reset() {
+        highs.clear();
+        lows.clear();
+        shortCloses.clear();
+        longCloses.clear();
+        returns.clear();
+        squaredReturns.clear();
+        tradedValue.clear();
+        tradedVolume.clear();
+        count = 0;
+        lastTime = Long.MIN_VALUE;
+        lastClose = 0;
+        emaSeed = 0;
+        ema = 0;
+        gainSeed = 0;
+        lossSeed = 0;
+        averageGain = 0;
+        averageLoss = 0;
+    }
+
+    private static double smooth(double average, double value) {
+        return (average * (RSI_PERIOD - 1) + value) / RSI_PERIOD;
+    }
+
+    private static double typicalPrice(double high, double low, double close) {
+        return (high + low + close) / 3;
+    }
+
+    private static Double present(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    /**
+     * Rolling maximum (or minimum) over a time window. Values are kept in a deque
+     * that is monotonic from head to tail, so the head is always the extreme and each
+     * value is pushed and popped at most once.
+     */
+    private static final class MonotonicWindow {
+
+        private final boolean maximum;
+        private long[] times = new long[64];
+        private double[] values = new double[64];
+        private int head;
+        private int size;
+
+        MonotonicWindow(boolean maximum) {
+            this.maximum = maximum;
+        }
+
+        void add(long time, double value) {
+            while (size > 0 && !dominates(values[index(size - 1)], value)) {
+                size--;
+            }
+            if (size == times.length) {
+                grow();
+            }
+            int tail = index(size++);
+            times[tail] = time;
+            values[tail] = value;
+        }
+
+        /**
+         * The extreme of the values at or after {@code start} and {@code candidate}.
+         * Expired values are dropped from the head first.
+         */
+        Double extreme(long start, double candidate) {
+            while (size > 0 && times[head] < start) {
+                head = index(1);
+                size--;
+            }
+            double extreme = candidate;
+            if (size > 0 && dominates(values[head], candidate)) {
+                extreme = values[head];
+            }
+            return present(extreme);
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        private boolean dominates(double kept, double value) {
+            return maximum ? kept > value : kept < value;
+        }
+
+        private int index(int offset) {
+            return (head + offset) % times.length;
+        }
+
+        private void grow() {
+            long[] grownTimes = new long[times.length * 2];
+            double[] grownValues = new double[values.length * 2];
+            for (int i = 0; i < size; i++) {
+                grownTimes[i] = times[index(i)];
+                grownValues[i] = values[index(i)];
+            }
+            times = grownTimes;
+            values = grownValues;
+            head = 0;
+        }
+    }
+
+    /**
+     * Sum of the last {@code period} values in a ring buffer. The running sum is
+     * recomputed once per lap so subtraction errors cannot accumulate.
+     */
+    private static final class RollingSum {
+
+        private final double[] values;
+        private long count;
+        private double sum;
+
+        RollingSum(int period) {
+            this.values = new double[period];
+        }
+
+        void add(double value) {
+            int slot = (int) (count % values.length);
+            sum += value - values[slot];
+            values[slot] = value;
+            count++;
+            if (slot == values.length - 1) {
+                sum = 0;
+                for (double kept : values) {
+                    sum += kept;
+                }
+            }
+        }
+
+        /**
+         * The sum of a full period ending with {@code value}, or NaN when fewer than
+         * {@code period - 1} values have been added.
+         */
+        double sumWith(double value) {
+            if (count < values.length - 1) {
+                return Double.NaN;
+            }
+            double oldest = count >= values.length ? values[(int) (count % values.length)] : 0;
+            return sum - oldest + value;
+        }
+
+        void clear() {
+            Arrays.fill(values, 0);
+            count = 0;
+            sum = 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The latencies of the most recent successful calls to one endpoint and their
+ * 95th percentile, recomputed every few samples rather than on every read.
+ */
+final class LatencyWindow {
+
+    private static final int SAMPLES = 256;
+    private static final int MIN_SAMPLES = 32;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples = new long[SAMPLES];
+    private int next;
+    private int size;
+    private int sinceEstimate;
+    private volatile long p95Nanos = -1;
+
+    void record(long nanos) {
+        lock.lock();
+        try {
+            samples[next] = nanos;
+            next = (next + 1) % SAMPLES;
+            size = Math.min(size + 1, SAMPLES);
+            if (size >= MIN_SAMPLES && ++sinceEstimate >= RECOMPUTE_EVERY) {
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(0.95 * size) - 1];
+                sinceEstimate = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The 95th percentile in nanoseconds, or {@code -1} until enough calls were seen.
+     */
+    long p95Nanos() {
+        return p95Nanos;
+    }
+}
@@ -0,0 +1,39 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "price_bar")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceBarEntity {
+
+    @EmbeddedId
+    private PriceBarId id;
+
+    @Column(nullable = false)
+    private double open;
+
+    @Column(nullable = false)
+    private double high;
+
+    @Column(nullable = false)
+    private double low;
+
+    @Column(nullable = false)
+    private double close;
+
+    @Column(nullable = false)
+    private long volume;
+}
@@ -0,0 +1,18 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBarId implements Serializable {
+    private String symbol;
+    private String barInterval;
+    private LocalDateTime barTime;
+}
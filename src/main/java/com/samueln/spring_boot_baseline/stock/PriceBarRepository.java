@@ -0,0 +1,22 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PriceBarRepository extends JpaRepository<PriceBarEntity, PriceBarId>, PriceBarRepositoryCustom {
+
+    @Query("""
+            select b from PriceBarEntity b
+            where b.id.symbol in :symbols and b.id.barInterval = :barInterval and b.id.barTime >= :since
+            order by b.id.symbol, b.id.barTime
+            """)
+    List<PriceBarEntity> findSince(@Param("symbols") Collection<String> symbols,
+            @Param("barInterval") String barInterval,
+            @Param("since") LocalDateTime since);
+}
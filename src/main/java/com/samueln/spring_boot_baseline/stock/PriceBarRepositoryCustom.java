@@ -0,0 +1,12 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+
+public interface PriceBarRepositoryCustom {
+
+    /**
+     * Inserts every bar of {@code series}, replacing stored bars with the same time,
+     * in a single JDBC batch.
+     */
+    void upsertAll(String symbol, String barInterval, PriceSeries series);
+}
@@ -0,0 +1,54 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+class PriceBarRepositoryCustomImpl implements PriceBarRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO price_bar (symbol, bar_interval, bar_time, open, high, low, close, volume)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (symbol, bar_interval, bar_time) DO UPDATE
+            SET open = EXCLUDED.open, high = EXCLUDED.high, low = EXCLUDED.low,
+                close = EXCLUDED.close, volume = EXCLUDED.volume
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PriceBarRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(String symbol, String barInterval, PriceSeries series) {
+        if (series.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                statement.setString(1, symbol);
+                statement.setString(2, barInterval);
+                statement.setObject(3, LocalDateTime.ofEpochSecond(series.time(index), 0, ZoneOffset.UTC));
+                statement.setDouble(4, series.open(index));
+                statement.setDouble(5, series.high(index));
+                statement.setDouble(6, series.low(index));
+                statement.setDouble(7, series.close(index));
+                statement.setLong(8, series.volume(index));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return series.size();
+            }
+        });
+    }
+}
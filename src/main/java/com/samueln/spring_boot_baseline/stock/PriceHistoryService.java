@@ -0,0 +1,120 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Daily price history persisted in {@code price_bar}.
+ * <p>
+ * Stored bars are treated as final except the most recent one, which is still
+ * forming. The first sync of a symbol fetches the whole window, up to Twelve
+ * Data's maximum of 5000 bars (about 20 years). Later syncs only ask for bars from
+ * the latest stored day onward, usually one or two bars.
+ */
+@Service
+public class PriceHistoryService {
+
+    static final String DAILY = "1day";
+    private static final int HISTORY_BARS = 5_000;
+    private static final int HISTORY_YEARS = 20;
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    private final PriceBarRepository priceBarRepository;
+    private final TwelveDataClient twelveDataClient;
+
+    public PriceHistoryService(PriceBarRepository priceBarRepository, TwelveDataClient twelveDataClient) {
+        this.priceBarRepository = priceBarRepository;
+        this.twelveDataClient = twelveDataClient;
+    }
+
+    /**
+     * Fails when there is no stored history and upstream answered with an error, so
+     * that is not taken for, or cached as, an empty history.
+     */
+    public PriceSeries loadDailySeries(String symbol, Priority priority) {
+        PriceSeries series = loadDailySeries(List.of(symbol), priority).get(symbol);
+        if (series == null) {
+            throw new IllegalStateException("No price history returned for " + symbol);
+        }
+        return series;
+    }
+
+    /**
+     * Syncs and returns daily history, oldest first, for several symbols.
+     * Symbols whose sync starts from the same day share one multi-symbol
+     * upstream request. Symbols without stored history that upstream answered
+     * with an error are absent from the result.
+     */
+    public Map<String, PriceSeries> loadDailySeries(List<String> symbols, Priority priority) {
+        LocalDate windowStart = LocalDate.now().minusYears(HISTORY_YEARS);
+        Map<String, List<PriceBarEntity>> stored = new HashMap<>();
+        priceBarRepository.findSince(symbols, DAILY, windowStart.atStartOfDay())
+                .forEach(bar -> stored.computeIfAbsent(bar.getId().getSymbol(), key -> new ArrayList<>()).add(bar));
+
+        // A null sync start means there is no history yet and the full window is fetched.
+        Map<LocalDate, List<String>> symbolsBySyncStart = new HashMap<>();
+        for (String symbol : symbols) {
+            List<PriceBarEntity> bars = stored.get(symbol);
+            LocalDate syncStart = bars == null ? null : bars.get(bars.size() - 1).getId().getBarTime().toLocalDate();
+            symbolsBySyncStart.computeIfAbsent(syncStart, key -> new ArrayList<>()).add(symbol);
+        }
+
+        Map<String, PriceSeries> history = new HashMap<>();
+        symbolsBySyncStart.forEach((syncStart, group) -> {
+            Map<String, PriceSeries> fetched = twelveDataClient.fetchTimeSeries(group, DAILY, HISTORY_BARS, syncStart,
+                    priority);
+            for (String symbol : group) {
+                if (stored.containsKey(symbol) || fetched.get(symbol) != null) {
+                    history.put(symbol, merge(symbol, stored.getOrDefault(symbol, List.of()), fetched.get(symbol)));
+                }
+            }
+        });
+        return history;
+    }
+
+    private PriceSeries merge(String symbol, List<PriceBarEntity> stored, PriceSeries fetched) {
+        boolean hasFetched = fetched != null && !fetched.isEmpty();
+        long firstFetched = hasFetched ? dayStart(fetched.time(0)) : Long.MAX_VALUE;
+        PriceSeries.Builder builder = PriceSeries.builder(stored.size() + (hasFetched ? fetched.size() : 0))
+                .interval(DAILY);
+        for (PriceBarEntity bar : stored) {
+            long day = bar.getId().getBarTime().toEpochSecond(ZoneOffset.UTC);
+            if (day < firstFetched) {
+                builder.add(day, bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+            }
+        }
+        if (hasFetched) {
+            for (int i = 0; i < fetched.size(); i++) {
+                builder.add(dayStart(fetched.time(i)), fetched.open(i), fetched.high(i), fetched.low(i),
+                        fetched.close(i), fetched.volume(i));
+            }
+            store(symbol, fetched);
+        }
+        return builder.build().last(HISTORY_BARS);
+    }
+
+    private void store(String symbol, PriceSeries fetched) {
+        try {
+            priceBarRepository.upsertAll(symbol, DAILY, fetched);
+        } catch (DataAccessException e) {
+            logger.warn("Unable to store {} {} price bars for {}: {}", fetched.size(), DAILY, symbol,
+                    e.getMessage());
+        }
+    }
+
+    private static long dayStart(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+    }
+}
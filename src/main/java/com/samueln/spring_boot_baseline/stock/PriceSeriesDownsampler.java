@@ -0,0 +1,65 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+
+/**
+ * Reduces a series to a client's point budget with Largest-Triangle-Three-Buckets.
+ * <p>
+ * LTTB keeps the first and last bar and, from each bucket in between, the bar that
+ * forms the largest triangle with the previously kept bar and the average of the
+ * next bucket. Peaks and troughs survive, unlike with plain striding. Bars are kept
+ * whole, and the x axis is the bar index so market closures do not distort the
+ * shape. The kept bars' OHLCV values are not aggregated.
+ */
+public final class PriceSeriesDownsampler {
+
+    private PriceSeriesDownsampler() {
+    }
+
+    public static PriceSeries lttb(PriceSeries series, int points) {
+        int size = series.size();
+        if (points >= size || points < 3) {
+            return series;
+        }
+
+        PriceSeries.Builder builder = PriceSeries.builder(points).interval(series.interval());
+        add(builder, series, 0);
+        double bucketSize = (double) (size - 2) / (points - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += series.close(i);
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = nextStart;
+            double previousY = series.close(previous);
+            double largestArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (series.close(i) - previousY)
+                        - (previous - i) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    selected = i;
+                }
+            }
+            add(builder, series, selected);
+            previous = selected;
+        }
+        add(builder, series, size - 1);
+        return builder.build();
+    }
+
+    private static void add(PriceSeries.Builder builder, PriceSeries series, int index) {
+        builder.add(series.time(index), series.open(index), series.high(index), series.low(index),
+                series.close(index), series.volume(index));
+    }
+}
@@ -0,0 +1,236 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.QuoteTick;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans live quotes out to Server-Sent Events subscribers.
+ * <p>
+ * Every subscribed symbol has one feed, reference counted by its subscribers, and
+ * the hub polls each feed's symbol no matter how many clients watch it. A feed is
+ * dropped, and its symbol no longer polled, when its last subscriber leaves. Each
+ * subscriber buffers at most one undelivered tick per symbol: a newer tick
+ * replaces an older one, so a slow client skips intermediate prices instead of
+ * falling behind or holding back the others.
+ * <p>
+ * Polls spend a fixed share of the per-minute credit budget, accrued evenly like
+ * {@link StockPrewarmer}'s. Symbols whose quote is still cached cost nothing and
+ * are polled every interval; the others are refreshed in turn as credits allow,
+ * so with many symbols or a small plan each one updates less often instead of
+ * taking credits from pre-warming and on-demand requests.
+ * <p>
+ * A subscription counts as a view of each symbol once the symbol has resolved to a
+ * quote, so symbols that do not exist never reach the trending rankings.
+ */
+@Component
+public class QuoteStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteStreamHub.class);
+
+    private static final int QUOTE_CREDITS = TwelveDataClient.QUOTE_CREDITS;
+
+    private final StockService stockService;
+    private final StockDataCache stockDataCache;
+    private final SymbolPopularity symbolPopularity;
+    private final double creditsPerTick;
+    private final double maxCredits;
+    private final Duration timeout;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    // Sends block on the client's socket, so each draining subscriber gets its own virtual thread.
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Polls run one at a time on the scheduler, so neither needs synchronization.
+    private double credits;
+    private int cursor;
+
+    public QuoteStreamHub(StockService stockService,
+            StockDataCache stockDataCache,
+            SymbolPopularity symbolPopularity,
+            @Value("${twelvedata.stream.poll-interval}") Duration pollInterval,
+            @Value("${twelvedata.credits-per-minute}") int creditsPerMinute,
+            @Value("${twelvedata.stream.credit-share}") double creditShare,
+            @Value("${twelvedata.stream.timeout}") Duration timeout) {
+        this.stockService = stockService;
+        this.stockDataCache = stockDataCache;
+        this.symbolPopularity = symbolPopularity;
+        this.creditsPerTick = creditsPerMinute * creditShare * pollInterval.toMillis() / 60_000d;
+        this.maxCredits = creditsPerMinute * creditShare;
+        // Starts with a full share so the first subscribers do not wait for credits to accrue.
+        this.credits = maxCredits;
+        this.timeout = timeout;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Subscribes a new client to already normalized symbols. The latest known tick
+     * of each symbol is sent right away; later ticks follow as they are polled.
+     */
+    public SseEmitter subscribe(List<String> symbols) {
+        return subscribe(symbols, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(List<String> symbols, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, symbols);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        for (String symbol : symbols) {
+            Feed feed = feeds.compute(symbol, (key, existing) -> {
+                Feed target = existing != null ? existing : new Feed();
+                target.subscribers.add(subscriber);
+                return target;
+            });
+            QuoteTick latest = feed.latest;
+            if (latest != null) {
+                symbolPopularity.recordView(symbol);
+                subscriber.offer(latest);
+            }
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${twelvedata.stream.poll-interval}")
+    public void poll() {
+        // Unused credits carry over up to one minute's share, like the pre-warmer's.
+        credits = Math.min(credits + creditsPerTick, maxCredits);
+
+        List<String> symbols = List.copyOf(feeds.keySet());
+        if (symbols.isEmpty()) {
+            return;
+        }
+
+        List<String> due = new ArrayList<>();
+        // Start after the last symbol fetched so every expired quote gets its turn.
+        int start = cursor % symbols.size();
+        for (int visited = 0; visited < symbols.size(); visited++) {
+            String symbol = symbols.get((start + visited) % symbols.size());
+            if (stockDataCache.isUnknown(symbol)) {
+                continue;
+            }
+            if (!stockDataCache.quoteExpiresWithin(symbol, Duration.ZERO)) {
+                due.add(symbol);
+            } else if (credits >= QUOTE_CREDITS) {
+                due.add(symbol);
+                credits -= QUOTE_CREDITS;
+                cursor = (start + visited + 1) % symbols.size();
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<String, QuoteTick> ticks;
+        try {
+            ticks = stockService.latestQuotes(due);
+        } catch (RuntimeException e) {
+            logger.warn("Quote poll for {} symbols failed: {}", due.size(), e.toString());
+            return;
+        }
+
+        ticks.forEach((symbol, tick) -> {
+            Feed feed = feeds.get(symbol);
+            if (feed != null && !tick.equals(feed.latest)) {
+                if (feed.latest == null) {
+                    // The symbol just resolved: count the subscribers that were waiting for it.
+                    feed.subscribers.forEach(subscriber -> symbolPopularity.recordView(symbol));
+                }
+                feed.latest = tick;
+                feed.subscribers.forEach(subscriber -> subscriber.offer(tick));
+            }
+        });
+    }
+
+    int activeSymbols() {
+        return feeds.size();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        for (String symbol : subscriber.symbols) {
+            feeds.computeIfPresent(symbol, (key, feed) -> {
+                feed.subscribers.remove(subscriber);
+                return feed.subscribers.isEmpty() ? null : feed;
+            });
+        }
+    }
+
+    private static final class Feed {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile QuoteTick latest;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final List<String> symbols;
+        // At most one undelivered tick per symbol; newer ticks overwrite older ones.
+        private final Map<String, QuoteTick> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, List<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        void offer(QuoteTick tick) {
+            if (closed.get()) {
+                return;
+            }
+            pending.put(tick.symbol(), tick);
+            if (draining.compareAndSet(false, true)) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                pending.clear();
+                unsubscribe(this);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    for (String symbol : pending.keySet()) {
+                        QuoteTick tick = pending.remove(symbol);
+                        if (tick != null && !closed.get()) {
+                            emitter.send(SseEmitter.event()
+                                    .name("quote")
+                                    .data(tick, MediaType.APPLICATION_JSON));
+                        }
+                    }
+                    draining.set(false);
+                    // A tick offered after the last pass but before the flag was cleared would be stranded.
+                } while (!pending.isEmpty() && !closed.get() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the container reports it through the emitter callbacks as well.
+                close();
+            }
+        }
+    }
+}
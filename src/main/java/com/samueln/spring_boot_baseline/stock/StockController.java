@@ -1,25 +1,198 @@
 package com.samueln.spring_boot_baseline.stock;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
 import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolMatch;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolSummary;
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/stock")
 public class StockController {
 
+    private static final String DEFAULT_POINTS = "" + StockService.DEFAULT_POINTS;
+
     private final StockService stockService;
+    private final SymbolPopularity symbolPopularity;
+    private final SymbolSearch symbolSearch;
+    private final QuoteStreamHub quoteStreamHub;
+    private final EncodedSummaryCache encodedSummaryCache;
+    private final ObjectMapper objectMapper;
 
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService, SymbolPopularity symbolPopularity, SymbolSearch symbolSearch,
+            QuoteStreamHub quoteStreamHub, EncodedSummaryCache encodedSummaryCache, ObjectMapper objectMapper) {
         this.stockService = stockService;
+        this.symbolPopularity = symbolPopularity;
+        this.symbolSearch = symbolSearch;
+        this.quoteStreamHub = quoteStreamHub;
+        this.encodedSummaryCache = encodedSummaryCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Get a pre-computed summary for a symbol",
+            description = "The chart covers the given timeline (1D, 1W, 1M, 6M, 1Y, 5Y or MAX) and is "
+                    + "downsampled to at most the given number of points. Responses carry a strong ETag; "
+                    + "send it back in If-None-Match to get a 304 while the summary is unchanged.")
+    @ApiResponse(responseCode = "200",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = StockSummary.class)))
+    @ApiResponse(responseCode = "304", description = "The summary matches the given ETag")
+    @GetMapping(value = "/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getStockSummary(@RequestParam("symbol") String symbol,
+            @RequestParam(name = "timeline", defaultValue = "1Y") String timeline,
+            @RequestParam(name = "points", defaultValue = DEFAULT_POINTS) int points,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Timeline range = Timeline.parse(timeline);
+        EncodedSummary summary = encodedSummaryCache.get(StockService.normalizeRequestedSymbol(symbol), range, points,
+                () -> stockService.getStockSummary(symbol, range, points));
+        symbolPopularity.recordView(summary.symbol());
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? summary.gzipEtag() : summary.etag();
+        boolean notModified = matchesEtag(ifNoneMatch, etag);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? summary.gzip() : summary.json());
+    }
+
+    @Operation(summary = "Get the chart of a symbol for a timeline",
+            description = "Columns of parallel arrays: t (epoch seconds), o, h, l, c and v.")
+    @GetMapping(value = "/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    public PriceSeries getPriceSeries(@RequestParam("symbol") String symbol,
+            @RequestParam(name = "timeline", defaultValue = "1Y") String timeline,
+            @RequestParam(name = "points", defaultValue = DEFAULT_POINTS) int points) {
+        return stockService.getPriceSeries(symbol, Timeline.parse(timeline), points);
+    }
+
+    @Operation(summary = "Get the chart of a symbol for a timeline in binary form",
+            description = "Opt in with Accept: " + PriceSeries.BINARY_MEDIA_TYPE + ". A version byte, the "
+                    + "length-prefixed interval, the bar count and then the t, o, h, l, c and v columns, "
+                    + "big-endian.")
+    @GetMapping(value = "/series", produces = PriceSeries.BINARY_MEDIA_TYPE)
+    public ResponseEntity<byte[]> getPriceSeriesBinary(@RequestParam("symbol") String symbol,
+            @RequestParam(name = "timeline", defaultValue = "1Y") String timeline,
+            @RequestParam(name = "points", defaultValue = DEFAULT_POINTS) int points) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(PriceSeries.BINARY_MEDIA_TYPE))
+                .body(stockService.getPriceSeries(symbol, Timeline.parse(timeline), points).toBinary());
+    }
+
+    @Operation(summary = "Stream summaries for several symbols",
+            description = "Accepts a comma-separated list of symbols and writes one JSON line per symbol "
+                    + "as soon as it is ready. Symbols that fail carry an error instead of a summary.")
+    @GetMapping(value = "/summaries", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getStockSummaries(@RequestParam("symbols") List<String> symbols) {
+        List<String> normalizedSymbols = stockService.normalizeSymbols(symbols);
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                stockService.streamStockSummaries(normalizedSymbols, result -> {
+                    // Only symbols that resolved count as views, so made-up ones never trend.
+                    if (result.status() == SymbolSummary.Status.READY) {
+                        symbolPopularity.recordView(result.symbol());
+                    }
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(result));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Search symbols by ticker or company name",
+            description = "Typeahead search: exact and prefix matches on the ticker, then on words of the "
+                    + "company name, then matches one typo away. Answered from an in-memory index without "
+                    + "calling upstream; a blank query returns no matches.")
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<SymbolMatch> searchSymbols(@RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return symbolSearch.search(query, limit);
+    }
+
+    @Operation(summary = "Get the trending symbols",
+            description = "Ranks symbols by popularity (decayed recent views plus favorites), by recent views "
+                    + "or by favorites. Served from an in-memory ranking rebuilt every second by default.")
+    @GetMapping(value = "/trending", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<TrendingSymbol> getTrending(@RequestParam(name = "by", defaultValue = "popular") String by,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return symbolPopularity.trending(SymbolPopularity.Ranking.parse(by), limit);
+    }
+
+    @Operation(summary = "Stream live quotes for several symbols",
+            description = "Server-Sent Events stream with one \"quote\" event per price change. "
+                    + "Slow clients receive only the latest quote of each symbol.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQuotes(@RequestParam("symbols") List<String> symbols) {
+        return quoteStreamHub.subscribe(stockService.normalizeSymbols(symbols));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
-    @Operation(summary = "Get a pre-computed summary for a symbol")
-    @GetMapping("/summary")
-    public StockSummary getStockSummary(@RequestParam("symbol") String symbol) {
-        return stockService.getStockSummary(symbol);
+    /**
+     * If-None-Match uses weak comparison, so a {@code W/} prefix is ignored.
+     */
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
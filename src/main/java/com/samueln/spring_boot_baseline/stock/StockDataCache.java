@@ -0,0 +1,210 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataProfile;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataQuote;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, per-component caches for Twelve Data responses.
+ * <p>
+ * Each component has its own lifetime: quotes for a few seconds, profiles for about
+ * a day, daily history for about an hour and intraday bars for about a minute.
+ * Entries hold the in-flight future, so concurrent misses for the same symbol
+ * share a single upstream call. Eviction is Caffeine's frequency-aware W-TinyLFU
+ * policy; the series caches are bounded by their total number of bars, since a
+ * daily history can hold thousands.
+ * <p>
+ * The bulk variants load only the symbols that are absent, in one call, and
+ * register them as in flight so single-symbol lookups join the bulk load.
+ * <p>
+ * The last summary built successfully for each symbol, timeline and point budget
+ * is kept for much longer than its components, to be served as stale when
+ * upstream fails.
+ */
+@Component
+public class StockDataCache implements MeterBinder {
+
+    private final AsyncCache<String, TwelveDataQuote> quotes;
+    private final AsyncCache<String, TwelveDataProfile> profiles;
+    private final AsyncCache<String, PriceSeries> timeSeries;
+    private final AsyncCache<String, PriceSeries> intradaySeries;
+    private final Cache<String, Boolean> unknownSymbols;
+    private final Cache<String, IndicatorEngine> indicatorEngines;
+    private final Cache<String, StockSummary> lastGoodSummaries;
+
+    public StockDataCache(@Value("${twelvedata.cache.max-symbols}") long maxSymbols,
+            @Value("${twelvedata.cache.max-series-bars}") long maxSeriesBars,
+            @Value("${twelvedata.cache.quote-ttl}") Duration quoteTtl,
+            @Value("${twelvedata.cache.profile-ttl}") Duration profileTtl,
+            @Value("${twelvedata.cache.history-ttl}") Duration historyTtl,
+            @Value("${twelvedata.cache.intraday-ttl}") Duration intradayTtl,
+            @Value("${twelvedata.cache.negative-ttl}") Duration negativeTtl,
+            @Value("${twelvedata.summary.stale-ttl}") Duration staleTtl) {
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(quoteTtl)
+                .recordStats()
+                .buildAsync();
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(profileTtl)
+                .recordStats()
+                .buildAsync();
+        this.timeSeries = Caffeine.newBuilder()
+                .maximumWeight(maxSeriesBars)
+                .weigher((String symbol, PriceSeries series) -> Math.max(series.size(), 1))
+                .expireAfterWrite(historyTtl)
+                .recordStats()
+                .buildAsync();
+        this.intradaySeries = Caffeine.newBuilder()
+                .maximumWeight(maxSeriesBars)
+                .weigher((String symbol, PriceSeries series) -> Math.max(series.size(), 1))
+                .expireAfterWrite(intradayTtl)
+                .recordStats()
+                .buildAsync();
+        this.unknownSymbols = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        this.indicatorEngines = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .build();
+        this.lastGoodSummaries = Caffeine.newBuilder()
+                .maximumSize(maxSymbols)
+                .expireAfterWrite(staleTtl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Publishes hit, miss, load and eviction counts of each cache as the standard
+     * {@code cache.*} meters, tagged with the cache name.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, quotes, "twelvedata.quotes");
+        CaffeineCacheMetrics.monitor(registry, profiles, "twelvedata.profiles");
+        CaffeineCacheMetrics.monitor(registry, timeSeries, "twelvedata.daily-series");
+        CaffeineCacheMetrics.monitor(registry, intradaySeries, "twelvedata.intraday-series");
+        CaffeineCacheMetrics.monitor(registry, lastGoodSummaries, "stock.last-good-summaries");
+    }
+
+    public CompletableFuture<TwelveDataQuote> quote(String symbol,
+            Supplier<CompletableFuture<TwelveDataQuote>> loader) {
+        return quotes.get(symbol, (key, executor) -> loader.get());
+    }
+
+    public CompletableFuture<TwelveDataProfile> profile(String symbol,
+            Supplier<CompletableFuture<TwelveDataProfile>> loader) {
+        return profiles.get(symbol, (key, executor) -> loader.get());
+    }
+
+    public CompletableFuture<PriceSeries> timeSeries(String symbol,
+            Supplier<CompletableFuture<PriceSeries>> loader) {
+        return timeSeries.get(symbol, (key, executor) -> loader.get());
+    }
+
+    public CompletableFuture<Map<String, TwelveDataQuote>> quotes(List<String> symbols,
+            Function<List<String>, CompletableFuture<Map<String, TwelveDataQuote>>> loader) {
+        return quotes.getAll(symbols, (missing, executor) -> loader.apply(sorted(missing)));
+    }
+
+    public CompletableFuture<PriceSeries> intradaySeries(String symbol,
+            Supplier<CompletableFuture<PriceSeries>> loader) {
+        return intradaySeries.get(symbol, (key, executor) -> loader.get());
+    }
+
+    public CompletableFuture<Map<String, PriceSeries>> timeSeries(List<String> symbols,
+            Function<List<String>, CompletableFuture<Map<String, PriceSeries>>> loader) {
+        return timeSeries.getAll(symbols, (missing, executor) -> loader.apply(sorted(missing)));
+    }
+
+    /**
+     * Company names from the profiles loaded so far, keyed by symbol, to seed
+     * symbol search. Profiles still loading or without a name are skipped.
+     */
+    public Map<String, String> cachedProfileNames() {
+        Map<String, String> names = new HashMap<>();
+        profiles.asMap().forEach((symbol, profile) -> {
+            if (profile.isDone() && !profile.isCompletedExceptionally()) {
+                TwelveDataProfile loaded = profile.join();
+                if (loaded != null && loaded.name() != null && !loaded.name().isBlank()) {
+                    names.put(symbol, loaded.name());
+                }
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Whether the slow-changing components of a summary (profile and price history)
+     * are cached or already loading.
+     */
+    public boolean isWarm(String symbol) {
+        return profiles.getIfPresent(symbol) != null && timeSeries.getIfPresent(symbol) != null;
+    }
+
+    /**
+     * Whether the cached quote is missing or will expire within {@code horizon}.
+     */
+    public boolean quoteExpiresWithin(String symbol, Duration horizon) {
+        return quotes.synchronous().policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(symbol)
+                        .map(age -> expiration.getExpiresAfter().minus(age)))
+                .map(remaining -> remaining.compareTo(horizon) <= 0)
+                .orElse(true);
+    }
+
+    public void putQuotes(Map<String, TwelveDataQuote> fresh) {
+        fresh.forEach((symbol, quote) -> quotes.put(symbol, CompletableFuture.completedFuture(quote)));
+    }
+
+    /**
+     * The symbol's indicator engine, which carries its state from one daily history
+     * to the next so reloads only feed the new bars.
+     */
+    public IndicatorEngine indicatorEngine(String symbol) {
+        return indicatorEngines.get(symbol, key -> new IndicatorEngine());
+    }
+
+    public StockSummary lastGoodSummary(String key) {
+        return lastGoodSummaries.getIfPresent(key);
+    }
+
+    public void putLastGoodSummary(String key, StockSummary summary) {
+        lastGoodSummaries.put(key, summary);
+    }
+
+    public boolean isUnknown(String symbol) {
+        return unknownSymbols.getIfPresent(symbol) != null;
+    }
+
+    public void markUnknown(String symbol) {
+        unknownSymbols.put(symbol, Boolean.TRUE);
+    }
+
+    private static List<String> sorted(Iterable<? extends String> symbols) {
+        List<String> sorted = new ArrayList<>();
+        symbols.forEach(sorted::add);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
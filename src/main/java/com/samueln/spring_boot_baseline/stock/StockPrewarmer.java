@@ -0,0 +1,117 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity.Ranking;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps popular symbols warm so they rarely pay a synchronous upstream fetch.
+ * <p>
+ * The hot set is the top of {@link SymbolPopularity}'s popular ranking: how many
+ * users favorited a symbol plus its decayed recent request count. Pre-warming
+ * spends a fixed share of the per-minute credit budget, accrued evenly over time
+ * and never more than one minute's share at once, on the hot set: symbols without
+ * cached profile or history get a full summary load, the others get their quote
+ * refreshed before it expires. Full loads are skipped when one costs more than
+ * the share, as on small plans. The remaining credits are left for on-demand
+ * misses.
+ */
+@Component
+@ConditionalOnProperty(name = "twelvedata.prewarm.enabled", havingValue = "true")
+public class StockPrewarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockPrewarmer.class);
+
+    private static final int SUMMARY_CREDITS = TwelveDataClient.QUOTE_CREDITS + TwelveDataClient.PROFILE_CREDITS
+            + TwelveDataClient.TIME_SERIES_CREDITS;
+    private static final int QUOTE_CREDITS = TwelveDataClient.QUOTE_CREDITS;
+
+    private final StockService stockService;
+    private final StockDataCache stockDataCache;
+    private final SymbolPopularity symbolPopularity;
+    private final Duration interval;
+    private final double creditsPerTick;
+    private final double maxCredits;
+    private final boolean loadsCold;
+    private final int hotSetSize;
+
+    private double credits;
+    private int cursor;
+
+    public StockPrewarmer(StockService stockService,
+            StockDataCache stockDataCache,
+            SymbolPopularity symbolPopularity,
+            @Value("${twelvedata.prewarm.interval}") Duration interval,
+            @Value("${twelvedata.credits-per-minute}") int creditsPerMinute,
+            @Value("${twelvedata.prewarm.credit-share}") double creditShare,
+            @Value("${twelvedata.prewarm.hot-set-size}") int hotSetSize) {
+        this.stockService = stockService;
+        this.stockDataCache = stockDataCache;
+        this.symbolPopularity = symbolPopularity;
+        this.interval = interval;
+        this.creditsPerTick = creditsPerMinute * creditShare * interval.toMillis() / 60_000d;
+        this.maxCredits = creditsPerMinute * creditShare;
+        this.loadsCold = SUMMARY_CREDITS <= maxCredits;
+        this.hotSetSize = hotSetSize;
+        if (!loadsCold) {
+            logger.info("Pre-warming only refreshes quotes: a summary costs {} credits, more than the {} per "
+                    + "minute set aside", SUMMARY_CREDITS, maxCredits);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${twelvedata.prewarm.interval}", initialDelayString = "${twelvedata.prewarm.interval}")
+    public void prewarm() {
+        // Unused credits carry over up to one minute's share, so a burst never eats into on-demand headroom.
+        credits = Math.min(credits + creditsPerTick, maxCredits);
+
+        List<String> hotSymbols = symbolPopularity.trending(Ranking.POPULAR, hotSetSize).stream()
+                .map(TrendingSymbol::symbol)
+                .toList();
+        if (hotSymbols.isEmpty()) {
+            return;
+        }
+
+        List<String> cold = new ArrayList<>();
+        List<String> dueQuotes = new ArrayList<>();
+        // Start after the last symbol handled so every hot symbol gets its turn.
+        int start = cursor % hotSymbols.size();
+        int visited = 0;
+        while (visited < hotSymbols.size() && credits >= QUOTE_CREDITS) {
+            String symbol = hotSymbols.get((start + visited) % hotSymbols.size());
+            visited++;
+            if (stockDataCache.isUnknown(symbol)) {
+                continue;
+            }
+            if (!stockDataCache.isWarm(symbol)) {
+                if (loadsCold && credits >= SUMMARY_CREDITS) {
+                    cold.add(symbol);
+                    credits -= SUMMARY_CREDITS;
+                }
+            } else if (stockDataCache.quoteExpiresWithin(symbol, interval)) {
+                dueQuotes.add(symbol);
+                credits -= QUOTE_CREDITS;
+            }
+        }
+        cursor = (start + visited) % hotSymbols.size();
+
+        try {
+            if (!dueQuotes.isEmpty()) {
+                stockService.refreshQuotes(dueQuotes);
+            }
+            if (!cold.isEmpty()) {
+                stockService.getStockSummaries(cold, interval, Priority.BACKGROUND);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Pre-warming {} symbols failed: {}", dueQuotes.size() + cold.size(), e.getMessage());
+        }
+    }
+}
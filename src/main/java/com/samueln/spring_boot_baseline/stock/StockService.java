@@ -1,136 +1,542 @@
 package com.samueln.spring_boot_baseline.stock;
 
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.Indicators;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.QuoteTick;
 import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolSummary;
 import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataProfile;
 import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataQuote;
-import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataTimeSeries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.time.format.TextStyle;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class StockService {
 
     private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+    /** Chart points when the client states no budget; a year of daily bars fits. */
+    public static final int DEFAULT_POINTS = 300;
+    /** Longest symbol accepted, as stored in {@code symbol_popularity}; Twelve Data's are far shorter. */
+    public static final int MAX_SYMBOL_LENGTH = 32;
+    private static final int MIN_POINTS = 3;
+    private static final int MAX_POINTS = 5_000;
+    private static final String INTRADAY_INTERVAL = "5min";
+    // Twelve Data's maximum output size: about 64 sessions of five-minute bars, enough for the 1M timeline.
+    private static final int INTRADAY_BARS = 5_000;
 
-    private final RestClient restClient;
-    private final String apiKey;
-    private final String baseUrl;
+    private final TwelveDataClient twelveDataClient;
+    private final PriceHistoryService priceHistoryService;
+    private final StockDataCache stockDataCache;
+    private final UpstreamLimiter limiter;
+    private final Duration callTimeout;
+    private final Duration summaryBudget;
+    private final int maxBatchSymbols;
+    private final MeterRegistry meterRegistry;
+    // Upstream calls are blocking I/O, so each one gets its own virtual thread.
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
 
-    public StockService(RestClient.Builder restClientBuilder,
-            @Value("${twelvedata.api.key}") String apiKey,
-            @Value("${twelvedata.base-url}") String baseUrl) {
-        this.restClient = restClientBuilder.build();
-        this.apiKey = apiKey;
-        this.baseUrl = baseUrl;
+    public StockService(TwelveDataClient twelveDataClient,
+            PriceHistoryService priceHistoryService,
+            StockDataCache stockDataCache,
+            UpstreamLimiter limiter,
+            @Value("${twelvedata.summary.call-timeout}") Duration callTimeout,
+            @Value("${twelvedata.summary.budget}") Duration summaryBudget,
+            @Value("${twelvedata.batch.max-symbols}") int maxBatchSymbols,
+            MeterRegistry meterRegistry) {
+        this.twelveDataClient = twelveDataClient;
+        this.priceHistoryService = priceHistoryService;
+        this.stockDataCache = stockDataCache;
+        this.limiter = limiter;
+        this.callTimeout = callTimeout;
+        this.summaryBudget = summaryBudget;
+        this.maxBatchSymbols = maxBatchSymbols;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    public static String normalizeSymbol(String symbol) {
+        return symbol == null ? "" : symbol.trim().toUpperCase(Locale.US);
+    }
+
+    /**
+     * Normalizes a symbol taken from a request, rejecting one longer than
+     * {@link #MAX_SYMBOL_LENGTH} before it reaches upstream URLs or cache keys.
+     */
+    public static String normalizeRequestedSymbol(String symbol) {
+        String normalized = normalizeSymbol(symbol);
+        if (normalized.length() > MAX_SYMBOL_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Symbols are at most " + MAX_SYMBOL_LENGTH + " characters long");
+        }
+        return normalized;
+    }
+
+    /**
+     * Normalizes and de-duplicates the symbols of a batch request, rejecting empty
+     * or oversized batches and over-long symbols.
+     */
+    public List<String> normalizeSymbols(Collection<String> symbols) {
+        List<String> normalized = symbols.stream()
+                .map(StockService::normalizeRequestedSymbol)
+                .filter(symbol -> !symbol.isEmpty())
+                .distinct()
+                .toList();
+        if (normalized.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one symbol is required");
+        }
+        if (normalized.size() > maxBatchSymbols) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchSymbols + " symbols are allowed per request");
+        }
+        return normalized;
     }
 
     public StockSummary getStockSummary(String symbol) {
-        String normalizedSymbol = symbol == null ? "" : symbol.trim().toUpperCase(Locale.US);
+        return getStockSummary(symbol, Timeline.ONE_YEAR, DEFAULT_POINTS);
+    }
+
+    /**
+     * Builds a summary by fanning the quote, profile and time series calls out
+     * concurrently, so the request waits for the slowest call rather than the sum
+     * of all three. Quote and time series are required; when the profile call
+     * fails or misses the budget, a partial summary is returned instead.
+     * Each component is served from {@link StockDataCache} when fresh. When a
+     * required call fails, the last good summary is served, marked stale.
+     * <p>
+     * The chart covers {@code timeline} and is downsampled to at most
+     * {@code points} bars.
+     */
+    public StockSummary getStockSummary(String symbol, Timeline timeline, int points) {
+        validatePoints(points);
+        return buildSummary(normalizeRequestedSymbol(symbol), timeline, points, Priority.INTERACTIVE);
+    }
 
+    /**
+     * Returns the chart a summary of {@code symbol} contains, without the quote and
+     * profile.
+     */
+    public PriceSeries getPriceSeries(String symbol, Timeline timeline, int points) {
+        validatePoints(points);
+        String normalizedSymbol = normalizeRequestedSymbol(symbol);
+        if (stockDataCache.isUnknown(normalizedSymbol)) {
+            throw unknownSymbol(normalizedSymbol);
+        }
         try {
-            TwelveDataQuote quote = fetchQuote(normalizedSymbol);
-            TwelveDataProfile profile = fetchProfile(normalizedSymbol);
-            TwelveDataTimeSeries timeSeries = fetchTimeSeries(normalizedSymbol);
+            PriceSeries source = await(timeline.intraday()
+                    ? intradaySeries(normalizedSymbol, Priority.INTERACTIVE)
+                    : dailyHistory(normalizedSymbol, Priority.INTERACTIVE),
+                    System.nanoTime() + summaryBudget.toNanos());
+            return chart(source, timeline, points);
+        } catch (UpstreamLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        } catch (Exception e) {
+            logger.error("Error loading price series for {}: {}", normalizedSymbol, e.getMessage());
+            throw new RuntimeException("Failed to load price series for symbol: " + normalizedSymbol, e);
+        }
+    }
 
-            List<StockSummary.PricePoint> priceSeries = buildPriceSeries(timeSeries);
-            double yearStartPrice = priceSeries.isEmpty() ? 0 : priceSeries.get(0).value();
-            double week52High = priceSeries.stream().mapToDouble(StockSummary.PricePoint::value).max().orElse(0);
-            double week52Low = priceSeries.stream().mapToDouble(StockSummary.PricePoint::value).min().orElse(0);
+    /**
+     * Builds summaries for already normalized symbols in parallel and hands each
+     * result to {@code sink} on the calling thread as soon as it is ready, in
+     * completion order. Failures are reported per symbol.
+     */
+    public void streamStockSummaries(List<String> symbols, Consumer<SymbolSummary> sink)
+            throws InterruptedException {
+        BlockingQueue<SymbolSummary> completed = new LinkedBlockingQueue<>();
+        submitSummaries(symbols, Priority.INTERACTIVE).forEach((symbol, future) -> future
+                .whenComplete((summary, error) -> completed.add(toSymbolSummary(symbol, summary, error))));
+        for (int i = 0; i < symbols.size(); i++) {
+            sink.accept(completed.take());
+        }
+    }
+
+    /**
+     * Builds summaries for several symbols in parallel, waiting at most
+     * {@code budget} for them. Symbols still loading when the budget runs out are
+     * reported as pending; their builds keep running and warm the caches for the
+     * next request.
+     *
+     * @return results keyed by normalized symbol, in request order
+     */
+    public Map<String, SymbolSummary> getStockSummaries(Collection<String> symbols, Duration budget) {
+        return getStockSummaries(symbols, budget, Priority.INTERACTIVE);
+    }
+
+    public Map<String, SymbolSummary> getStockSummaries(Collection<String> symbols, Duration budget,
+            Priority priority) {
+        List<String> normalizedSymbols = symbols.stream()
+                .map(StockService::normalizeSymbol)
+                .filter(symbol -> !symbol.isEmpty())
+                .distinct()
+                .toList();
+        Map<String, CompletableFuture<StockSummary>> futures = submitSummaries(normalizedSymbols, priority);
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .get(budget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual outcomes are reported per symbol below.
+        }
+
+        Map<String, SymbolSummary> results = new LinkedHashMap<>();
+        futures.forEach((symbol, future) -> results.put(symbol, switch (future.state()) {
+            case SUCCESS -> SymbolSummary.success(symbol, future.resultNow());
+            case FAILED -> toSymbolSummary(symbol, null, future.exceptionNow());
+            default -> SymbolSummary.pending(symbol);
+        }));
+        return results;
+    }
+
+    /**
+     * Starts building summaries for already normalized symbols. Quotes and time
+     * series for all cache misses are prefetched with multi-symbol requests of at
+     * most {@code maxBatchSymbols} each; the per-symbol builds then join those
+     * in-flight loads.
+     */
+    Map<String, CompletableFuture<StockSummary>> submitSummaries(List<String> symbols, Priority priority) {
+        List<String> candidates = symbols.stream()
+                .filter(symbol -> !stockDataCache.isUnknown(symbol))
+                .toList();
+        for (int from = 0; candidates.size() > 1 && from < candidates.size(); from += maxBatchSymbols) {
+            List<String> chunk = candidates.subList(from, Math.min(from + maxBatchSymbols, candidates.size()));
+            stockDataCache.quotes(chunk, missing -> fetchAsync(priority, () -> loadQuotes(missing, priority)));
+            stockDataCache.timeSeries(chunk,
+                    missing -> fetchAsync(priority, () -> priceHistoryService.loadDailySeries(missing, priority)));
+        }
+
+        Map<String, CompletableFuture<StockSummary>> summaries = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            summaries.put(symbol, CompletableFuture.supplyAsync(
+                    () -> buildSummary(symbol, Timeline.ONE_YEAR, DEFAULT_POINTS, priority), fetchExecutor));
+        }
+        return summaries;
+    }
+
+    /**
+     * Replaces the cached quotes of already normalized symbols using multi-symbol
+     * requests. Used by background refresh, so failures are left to the caller.
+     */
+    public void refreshQuotes(List<String> symbols) {
+        for (int from = 0; from < symbols.size(); from += maxBatchSymbols) {
+            List<String> chunk = symbols.subList(from, Math.min(from + maxBatchSymbols, symbols.size()));
+            stockDataCache.putQuotes(loadQuotes(chunk, Priority.BACKGROUND));
+        }
+    }
+
+    /**
+     * Returns the latest quotes of already normalized symbols, served from the quote
+     * cache when fresh and otherwise loaded with multi-symbol background requests.
+     * Unknown symbols and symbols upstream had no quote for are left out.
+     */
+    public Map<String, QuoteTick> latestQuotes(List<String> symbols) {
+        List<String> candidates = symbols.stream()
+                .filter(symbol -> !stockDataCache.isUnknown(symbol))
+                .toList();
+        List<CompletableFuture<Map<String, TwelveDataQuote>>> chunks = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += maxBatchSymbols) {
+            List<String> chunk = candidates.subList(from, Math.min(from + maxBatchSymbols, candidates.size()));
+            chunks.add(stockDataCache.quotes(chunk,
+                    missing -> fetchAsync(Priority.BACKGROUND, () -> loadQuotes(missing, Priority.BACKGROUND))));
+        }
+
+        Map<String, QuoteTick> ticks = new LinkedHashMap<>();
+        for (CompletableFuture<Map<String, TwelveDataQuote>> chunk : chunks) {
+            chunk.join().forEach((symbol, quote) -> ticks.put(symbol, new QuoteTick(
+                    symbol,
+                    quote.datetime(),
+                    parseDouble(quote.close()),
+                    parseDouble(quote.change()),
+                    parseDouble(quote.percentChange()),
+                    parseDouble(quote.volume()))));
+        }
+        return ticks;
+    }
+
+    private SymbolSummary toSymbolSummary(String symbol, StockSummary summary, Throwable error) {
+        if (error == null) {
+            return SymbolSummary.success(symbol, summary);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ResponseStatusException statusException) {
+            return SymbolSummary.failure(symbol, statusException.getReason());
+        }
+        return SymbolSummary.failure(symbol, "Failed to build stock summary");
+    }
+
+    /**
+     * Builds a summary and records how long it took, tagged with whether it came
+     * out complete, partial, stale or failed.
+     * <p>
+     * When upstream fails, the last summary built for the same symbol, timeline and
+     * points is returned instead, marked stale, and rebuilt in the background.
+     * Client errors such as unknown symbols are never answered with a stale summary.
+     */
+    private StockSummary buildSummary(String normalizedSymbol, Timeline timeline, int points, Priority priority) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String key = normalizedSymbol + "/" + timeline.label() + "/" + points;
+        try {
+            StockSummary summary = assembleSummary(normalizedSymbol, timeline, points, priority);
+            stockDataCache.putLastGoodSummary(key, summary);
+            outcome = summary.partial() ? "partial" : "complete";
+            return summary;
+        } catch (RuntimeException e) {
+            StockSummary lastGood = isUpstreamFailure(e) ? stockDataCache.lastGoodSummary(key) : null;
+            if (lastGood == null) {
+                throw e;
+            }
+            logger.warn("Serving stale summary for {}: {}", normalizedSymbol, e.getMessage());
+            revalidate(key, normalizedSymbol, timeline, points);
+            outcome = "stale";
+            return lastGood.toBuilder().stale(true).build();
+        } finally {
+            sample.stop(Timer.builder("stock.summary.build")
+                    .description("Time to build a stock summary, including upstream calls")
+                    .tag("timeline", timeline.label())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Rebuilds a summary that was served stale, at most once at a time per summary.
+     */
+    private void revalidate(String key, String normalizedSymbol, Timeline timeline, int points) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        fetchExecutor.execute(() -> {
+            try {
+                stockDataCache.putLastGoodSummary(key,
+                        assembleSummary(normalizedSymbol, timeline, points, Priority.BACKGROUND));
+            } catch (RuntimeException e) {
+                logger.debug("Revalidating summary for {} failed: {}", normalizedSymbol, e.getMessage());
+            } finally {
+                revalidating.remove(key);
+            }
+        });
+    }
+
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        return !(e instanceof ResponseStatusException statusException)
+                || statusException.getStatusCode().is5xxServerError();
+    }
+
+    private StockSummary assembleSummary(String normalizedSymbol, Timeline timeline, int points,
+            Priority priority) {
+        if (stockDataCache.isUnknown(normalizedSymbol)) {
+            throw unknownSymbol(normalizedSymbol);
+        }
+        long deadline = System.nanoTime() + summaryBudget.toNanos();
+
+        try {
+            CompletableFuture<TwelveDataQuote> quoteFuture = stockDataCache.quote(normalizedSymbol,
+                    () -> fetchAsync(priority, () -> loadQuote(normalizedSymbol, priority)));
+            CompletableFuture<TwelveDataProfile> profileFuture = stockDataCache.profile(normalizedSymbol,
+                    () -> fetchAsync(priority, () -> loadProfile(normalizedSymbol, priority)));
+            CompletableFuture<PriceSeries> historyFuture = dailyHistory(normalizedSymbol, priority);
+            CompletableFuture<PriceSeries> intradayFuture = timeline.intraday()
+                    ? intradaySeries(normalizedSymbol, priority)
+                    : null;
+
+            TwelveDataQuote quote = await(quoteFuture, deadline);
+            if (quote == null) {
+                throw stockDataCache.isUnknown(normalizedSymbol)
+                        ? unknownSymbol(normalizedSymbol)
+                        : new IllegalStateException("No quote returned for " + normalizedSymbol);
+            }
+            PriceSeries history = await(historyFuture, deadline);
+            if (history == null) {
+                // Left out of a bulk load that upstream answered with an error for this symbol.
+                throw new IllegalStateException("No price history returned for " + normalizedSymbol);
+            }
+            PriceSeries intraday = intradayFuture != null ? await(intradayFuture, deadline) : null;
+            TwelveDataProfile profile = awaitOptional(profileFuture, deadline, "profile", normalizedSymbol);
+
+            PriceSeries lastYear = Timeline.ONE_YEAR.window(history);
+            Indicators indicators = stockDataCache.indicatorEngine(normalizedSymbol).update(history);
 
             return StockSummary.builder()
                     .symbol(normalizedSymbol)
                     .companyName(coalesce(
                             profile != null ? profile.name() : null,
-                            quote != null ? quote.name() : null,
+                            quote.name(),
                             "N/A"))
                     .exchange(coalesce(
-                            quote != null ? quote.exchange() : null,
+                            quote.exchange(),
                             profile != null ? profile.exchange() : null,
                             "N/A"))
                     .sector(profile != null ? coalesce(profile.sector(), "N/A") : "N/A")
-                    .timeline("1Y")
-                    .price(parseDouble(quote != null ? quote.close() : null))
-                    .dailyChange(parseDouble(quote != null ? quote.change() : null))
-                    .dailyChangePercent(parseDouble(quote != null ? quote.percentChange() : null))
+                    .timeline(timeline.label())
+                    .price(parseDouble(quote.close()))
+                    .dailyChange(parseDouble(quote.change()))
+                    .dailyChangePercent(parseDouble(quote.percentChange()))
                     .marketCap(parseDouble(profile != null ? profile.marketCap() : null))
-                    .week52High(week52High)
-                    .week52Low(week52Low)
-                    .yearStartPrice(yearStartPrice)
+                    .week52High(indicators.week52High() != null ? indicators.week52High() : 0)
+                    .week52Low(indicators.week52Low() != null ? indicators.week52Low() : 0)
+                    .yearStartPrice(lastYear.isEmpty() ? 0 : lastYear.close(0))
                     .description(profile != null ? coalesce(profile.description(), "") : "")
-                    .priceSeries(priceSeries)
+                    .indicators(indicators)
+                    .priceSeries(chart(timeline.intraday() ? intraday : history, timeline, points))
+                    .partial(profile == null)
                     .build();
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (UpstreamLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
         } catch (Exception e) {
-            logger.error("Error building stock summary for {}: {}", symbol, e.getMessage());
-            throw new RuntimeException("Failed to build stock summary for symbol: " + symbol, e);
+            logger.error("Error building stock summary for {}: {}", normalizedSymbol, e.getMessage());
+            throw new RuntimeException("Failed to build stock summary for symbol: " + normalizedSymbol, e);
         }
     }
 
-    private TwelveDataQuote fetchQuote(String symbol) {
-        String url = String.format("%s/quote?symbol=%s&apikey=%s", baseUrl, symbol, apiKey);
-        return restClient.get()
-                .uri(url)
-                .retrieve()
-                .body(TwelveDataQuote.class);
+    private CompletableFuture<PriceSeries> dailyHistory(String symbol, Priority priority) {
+        return stockDataCache.timeSeries(symbol,
+                () -> fetchAsync(priority, () -> priceHistoryService.loadDailySeries(symbol, priority)));
     }
 
-    private TwelveDataProfile fetchProfile(String symbol) {
-        String url = String.format("%s/profile?symbol=%s&apikey=%s", baseUrl, symbol, apiKey);
-        return restClient.get()
-                .uri(url)
-                .retrieve()
-                .body(TwelveDataProfile.class);
+    private CompletableFuture<PriceSeries> intradaySeries(String symbol, Priority priority) {
+        return stockDataCache.intradaySeries(symbol, () -> fetchAsync(priority,
+                () -> twelveDataClient.fetchTimeSeries(symbol, INTRADAY_INTERVAL, INTRADAY_BARS, priority)));
     }
 
-    private TwelveDataTimeSeries fetchTimeSeries(String symbol) {
-        String url = String.format("%s/time_series?symbol=%s&interval=1month&outputsize=15&apikey=%s", baseUrl, symbol,
-                apiKey);
-        return restClient.get()
-                .uri(url)
-                .retrieve()
-                .body(TwelveDataTimeSeries.class);
+    private PriceSeries chart(PriceSeries source, Timeline timeline, int points) {
+        if (source == null) {
+            return PriceSeries.empty();
+        }
+        return PriceSeriesDownsampler.lttb(timeline.window(source), points);
     }
 
-    private List<StockSummary.PricePoint> buildPriceSeries(TwelveDataTimeSeries response) {
-        if (response == null || response.values() == null || response.values().isEmpty()) {
-            return List.of();
+    private void validatePoints(int points) {
+        if (points < MIN_POINTS || points > MAX_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "points must be between " + MIN_POINTS + " and " + MAX_POINTS);
         }
+    }
 
-        List<StockSummary.PricePoint> sortedPoints = response.values().stream()
-                .sorted(Comparator.comparing(TwelveDataTimeSeries.TimeSeriesValue::datetime))
-                .map(value -> new StockSummary.PricePoint(formatMonthLabel(value.datetime()),
-                        parseDouble(value.close())))
-                .filter(point -> point.value() > 0)
-                .collect(Collectors.toList());
+    /**
+     * Runs {@code call} on its own virtual thread. The call may first queue in the
+     * limiter for as long as its priority allows, and {@code call-timeout} only
+     * bounds the upstream request after that, so background loads are not timed out
+     * while still queued, only for their credits to be spent on a discarded result.
+     */
+    private <T> CompletableFuture<T> fetchAsync(Priority priority, Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, fetchExecutor)
+                .orTimeout(limiter.maxWait(priority).plus(callTimeout).toMillis(), TimeUnit.MILLISECONDS);
+    }
 
-        int startIndex = Math.max(sortedPoints.size() - 12, 0);
-        return new ArrayList<>(sortedPoints.subList(startIndex, sortedPoints.size()));
+    private <T> T await(CompletableFuture<T> future, long deadline) throws Exception {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
     }
 
-    private String formatMonthLabel(String date) {
-        if (date == null || date.isBlank()) {
-            return "";
+    private <T> T awaitOptional(CompletableFuture<T> future, long deadline, String component, String symbol) {
+        try {
+            return await(future, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.warn("Serving partial summary for {}: {} unavailable ({})", symbol, component, e.toString());
+            return null;
         }
+    }
+
+    private TwelveDataQuote loadQuote(String symbol, Priority priority) {
         try {
-            LocalDate parsed = LocalDate.parse(date.substring(0, Math.min(date.length(), 10)));
-            return parsed.getMonth().getDisplayName(TextStyle.SHORT, Locale.US);
-        } catch (DateTimeParseException ex) {
-            logger.warn("Unable to parse date {} for price series label", date);
-            return date;
+            return knownQuote(symbol, twelveDataClient.fetchQuote(symbol, priority));
+        } catch (HttpClientErrorException.NotFound e) {
+            stockDataCache.markUnknown(symbol);
+            return null;
         }
     }
 
+    /**
+     * Fails on an error body, so it is neither cached nor taken for an empty
+     * profile; the summary is then served partial.
+     */
+    private TwelveDataProfile loadProfile(String symbol, Priority priority) {
+        TwelveDataProfile profile = twelveDataClient.fetchProfile(symbol, priority);
+        if (profile == null || profile.isError()) {
+            throw new IllegalStateException("Upstream profile error for " + symbol + ": "
+                    + (profile != null ? profile.message() : "empty response"));
+        }
+        return profile;
+    }
+
+    private Map<String, TwelveDataQuote> loadQuotes(List<String> symbols, Priority priority) {
+        Map<String, TwelveDataQuote> quotes = new HashMap<>();
+        twelveDataClient.fetchQuotes(symbols, priority).forEach((symbol, quote) -> {
+            TwelveDataQuote known = knownQuote(symbol, quote);
+            if (known != null) {
+                quotes.put(symbol, known);
+            }
+        });
+        return quotes;
+    }
+
+    /**
+     * Returns the quote, or {@code null} when upstream answered with an error body.
+     * Symbols Twelve Data does not recognise are remembered as unknown.
+     */
+    private TwelveDataQuote knownQuote(String symbol, TwelveDataQuote quote) {
+        if (quote == null || quote.symbolNotFound()) {
+            stockDataCache.markUnknown(symbol);
+            return null;
+        }
+        if (quote.isError()) {
+            logger.warn("Upstream quote error for {}: {}", symbol, quote.message());
+            return null;
+        }
+        return quote;
+    }
+
+    private ResponseStatusException unknownSymbol(String symbol) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown symbol: " + symbol);
+    }
+
     private double parseDouble(String value) {
         if (value == null || value.isBlank()) {
             return 0;
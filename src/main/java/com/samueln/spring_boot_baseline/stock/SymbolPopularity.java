@@ -0,0 +1,273 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
+import com.samueln.spring_boot_baseline.user.FavoriteStockRepository;
+import com.samueln.spring_boot_baseline.user.SymbolFavoriteCount;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Tracks how popular each symbol is: how often it is requested, as an
+ * exponentially decayed score, and how many users favorited it.
+ * <p>
+ * Requests and favorite changes are counted into per-symbol {@link LongAdder}s,
+ * which stripe their cells so request threads never contend on a counter.
+ * {@link #refresh()} folds those counts in, halves old activity every
+ * {@code half-life} and rebuilds the top-K rankings with a bounded heap, so
+ * {@link #trending} only reads an immutable snapshot.
+ * <p>
+ * Favorite changes are counted once their transaction commits, and totals are
+ * reconciled with the stored favorites every {@code favorites-refresh}. View totals and scores are flushed to
+ * {@code symbol_popularity} every {@code flush-interval} and reloaded on
+ * startup, decayed by the time since they were flushed.
+ */
+@Component
+public class SymbolPopularity {
+
+    public enum Ranking {
+        /** View score plus favorites. */
+        POPULAR,
+        VIEWED,
+        FAVORITED;
+
+        public static Ranking parse(String label) {
+            for (Ranking ranking : values()) {
+                if (ranking.name().equalsIgnoreCase(label.trim())) {
+                    return ranking;
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown ranking: " + label + ", expected one of "
+                    + Arrays.stream(values()).map(r -> r.name().toLowerCase(Locale.US)).collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolPopularity.class);
+
+    private static final double MIN_SCORE = 0.01;
+
+    private final ConcurrentHashMap<String, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> pendingFavorites = new ConcurrentHashMap<>();
+    private final SymbolPopularityRepository symbolPopularityRepository;
+    private final FavoriteStockRepository favoriteStockRepository;
+    private final long halfLifeNanos;
+    private final int topK;
+    private final long favoritesRefreshNanos;
+
+    // Guarded by this.
+    private final Map<String, Double> viewScores = new HashMap<>();
+    private final Map<String, Long> favorites = new HashMap<>();
+    private final Map<String, Long> unflushedViews = new HashMap<>();
+    private long lastDecay = System.nanoTime();
+    private long favoritesLoadedAt;
+    private boolean loaded;
+
+    private volatile Map<Ranking, List<TrendingSymbol>> rankings;
+
+    public SymbolPopularity(SymbolPopularityRepository symbolPopularityRepository,
+            FavoriteStockRepository favoriteStockRepository,
+            @Value("${twelvedata.popularity.half-life}") Duration halfLife,
+            @Value("${twelvedata.popularity.top-k}") int topK,
+            @Value("${twelvedata.popularity.favorites-refresh}") Duration favoritesRefresh) {
+        this.symbolPopularityRepository = symbolPopularityRepository;
+        this.favoriteStockRepository = favoriteStockRepository;
+        this.halfLifeNanos = halfLife.toNanos();
+        this.topK = topK;
+        this.favoritesRefreshNanos = favoritesRefresh.toNanos();
+        this.favoritesLoadedAt = System.nanoTime() - favoritesRefreshNanos;
+        this.rankings = rank();
+    }
+
+    public void recordView(String symbol) {
+        pendingViews.computeIfAbsent(symbol, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a favorite added ({@code delta} 1) or removed ({@code delta} -1). Call
+     * it after the change committed.
+     */
+    public void recordFavorite(String symbol, int delta) {
+        pendingFavorites.computeIfAbsent(symbol, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * The top {@code limit} symbols of the ranking as of the last refresh. Only the
+     * top {@code top-k} of each ranking are kept, so at most that many are returned.
+     */
+    public List<TrendingSymbol> trending(Ranking ranking, int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        List<TrendingSymbol> top = rankings.get(ranking);
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Applies decay for the time elapsed since the previous call, folds in the
+     * views and favorite changes counted since then and re-ranks the symbols.
+     */
+    @Scheduled(fixedDelayString = "${twelvedata.popularity.refresh-interval}")
+    public synchronized void refresh() {
+        long now = System.nanoTime();
+        if (now - favoritesLoadedAt >= favoritesRefreshNanos) {
+            favoritesLoadedAt = now;
+            if (!loaded) {
+                load();
+            }
+            reconcileFavorites();
+        }
+
+        double factor = Math.pow(0.5, (double) (now - lastDecay) / halfLifeNanos);
+        lastDecay = now;
+        viewScores.replaceAll((symbol, score) -> score * factor);
+        drain(pendingViews, (symbol, views) -> {
+            viewScores.merge(symbol, views.doubleValue(), Double::sum);
+            unflushedViews.merge(symbol, views, Long::sum);
+        });
+        drain(pendingFavorites, (symbol, delta) -> favorites.merge(symbol, delta, Long::sum));
+        viewScores.values().removeIf(score -> score < MIN_SCORE);
+        favorites.values().removeIf(count -> count <= 0);
+
+        rankings = rank();
+    }
+
+    /**
+     * Stores the current view scores and the views counted since the previous
+     * flush. Does nothing until the stored scores were loaded, so they are never
+     * overwritten with partial ones.
+     */
+    @Scheduled(fixedDelayString = "${twelvedata.popularity.flush-interval}",
+            initialDelayString = "${twelvedata.popularity.flush-interval}")
+    public void flush() {
+        Map<String, Double> scores;
+        Map<String, Long> views;
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            scores = new HashMap<>(viewScores);
+            views = new HashMap<>(unflushedViews);
+            unflushedViews.clear();
+        }
+        try {
+            symbolPopularityRepository.upsertAll(scores, views, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                views.forEach((symbol, count) -> unflushedViews.merge(symbol, count, Long::sum));
+            }
+            logger.warn("Flushing the popularity of {} symbols failed: {}", scores.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresh();
+        flush();
+    }
+
+    private void load() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (SymbolPopularityEntity stored : symbolPopularityRepository.findAll()) {
+                long age = Math.max(0, Duration.between(stored.getScoredAt(), now).toNanos());
+                double score = stored.getViewScore() * Math.pow(0.5, (double) age / halfLifeNanos);
+                if (score >= MIN_SCORE) {
+                    viewScores.merge(stored.getSymbol(), score, Double::sum);
+                }
+            }
+            loaded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Loading stored symbol popularity failed: {}", e.getMessage());
+        }
+    }
+
+    private void reconcileFavorites() {
+        // Changes are counted after their transaction commits, so those counted so far are part of the
+        // totals the query below reads. Changes committed while it runs stay pending and are added on top.
+        drain(pendingFavorites, (symbol, delta) -> {
+        });
+        try {
+            Map<String, Long> counts = new HashMap<>();
+            for (SymbolFavoriteCount count : favoriteStockRepository.findMostFavorited(Limit.unlimited())) {
+                counts.merge(StockService.normalizeSymbol(count.getSymbol()), count.getFavorites(), Long::sum);
+            }
+            favorites.clear();
+            favorites.putAll(counts);
+        } catch (RuntimeException e) {
+            logger.warn("Reconciling favorite counts failed: {}", e.getMessage());
+        }
+    }
+
+    private Map<Ranking, List<TrendingSymbol>> rank() {
+        Map<String, TrendingSymbol> symbols = new HashMap<>();
+        viewScores.forEach((symbol, score) -> {
+            long count = favorites.getOrDefault(symbol, 0L);
+            symbols.put(symbol, new TrendingSymbol(symbol, score + count, score, count));
+        });
+        favorites.forEach((symbol, count) -> symbols.putIfAbsent(symbol, new TrendingSymbol(symbol, count, 0, count)));
+
+        Map<Ranking, List<TrendingSymbol>> ranked = new EnumMap<>(Ranking.class);
+        ranked.put(Ranking.POPULAR, top(symbols.values(), Comparator.comparingDouble(TrendingSymbol::score)));
+        ranked.put(Ranking.VIEWED, top(symbols.values().stream().filter(s -> s.viewScore() > 0).toList(),
+                Comparator.comparingDouble(TrendingSymbol::viewScore)));
+        ranked.put(Ranking.FAVORITED, top(symbols.values().stream().filter(s -> s.favorites() > 0).toList(),
+                Comparator.comparingLong(TrendingSymbol::favorites)));
+        return ranked;
+    }
+
+    /**
+     * The {@code topK} greatest symbols by {@code order}, greatest first, found with
+     * a min-heap of size {@code topK} in O(n log k).
+     */
+    private List<TrendingSymbol> top(Collection<TrendingSymbol> symbols, Comparator<TrendingSymbol> order) {
+        // Ties rank alphabetically, so the heap evicts the later symbol.
+        Comparator<TrendingSymbol> ascending = order.thenComparing(TrendingSymbol::symbol, Comparator.reverseOrder());
+        PriorityQueue<TrendingSymbol> heap = new PriorityQueue<>(topK + 1, ascending);
+        for (TrendingSymbol symbol : symbols) {
+            heap.add(symbol);
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<TrendingSymbol> top = new ArrayList<>(heap);
+        top.sort(ascending.reversed());
+        return List.copyOf(top);
+    }
+
+    /**
+     * Hands the count of each counter to {@code sink} and resets it. Counters are
+     * never removed: a recorder may already hold one it fetched, and its increment
+     * would be lost. Their number is bounded by the symbols that resolved or were
+     * favorited.
+     */
+    private static void drain(ConcurrentHashMap<String, LongAdder> counters, BiConsumer<String, Long> sink) {
+        counters.forEach((symbol, counter) -> {
+            long count = counter.sumThenReset();
+            if (count != 0) {
+                sink.accept(symbol, count);
+            }
+        });
+    }
+}
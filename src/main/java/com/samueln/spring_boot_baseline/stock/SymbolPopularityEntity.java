@@ -0,0 +1,39 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Durable copy of a symbol's popularity: the total number of views and the
+ * decayed view score as of {@code scoredAt}.
+ */
+@Entity
+@Table(name = "symbol_popularity")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SymbolPopularityEntity {
+
+    @Id
+    @Column(length = StockService.MAX_SYMBOL_LENGTH)
+    private String symbol;
+
+    @Column(nullable = false)
+    private long views;
+
+    @Column(nullable = false)
+    private double viewScore;
+
+    @Column(nullable = false)
+    private LocalDateTime scoredAt;
+}
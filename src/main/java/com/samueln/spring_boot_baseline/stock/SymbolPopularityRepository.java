@@ -0,0 +1,9 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SymbolPopularityRepository
+        extends JpaRepository<SymbolPopularityEntity, String>, SymbolPopularityRepositoryCustom {
+}
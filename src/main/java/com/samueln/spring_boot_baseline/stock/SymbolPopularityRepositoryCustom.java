@@ -0,0 +1,14 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface SymbolPopularityRepositoryCustom {
+
+    /**
+     * Stores the view score of every symbol in {@code viewScores} and adds
+     * {@code newViews} to the symbols' view totals, in a single JDBC batch. Symbols
+     * missing from {@code viewScores} are stored with a score of zero.
+     */
+    void upsertAll(Map<String, Double> viewScores, Map<String, Long> newViews, LocalDateTime scoredAt);
+}
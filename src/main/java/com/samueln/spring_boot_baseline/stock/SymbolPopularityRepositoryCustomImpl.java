@@ -0,0 +1,60 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+class SymbolPopularityRepositoryCustomImpl implements SymbolPopularityRepositoryCustom {
+
+    private static final String UPSERT = """
+            INSERT INTO symbol_popularity (symbol, views, view_score, scored_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (symbol) DO UPDATE
+            SET views = symbol_popularity.views + EXCLUDED.views,
+                view_score = EXCLUDED.view_score, scored_at = EXCLUDED.scored_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SymbolPopularityRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void upsertAll(Map<String, Double> viewScores, Map<String, Long> newViews, LocalDateTime scoredAt) {
+        // Sorted, so concurrent flushes from several instances lock rows in the same order.
+        Set<String> sorted = new TreeSet<>(viewScores.keySet());
+        sorted.addAll(newViews.keySet());
+        // A symbol the column cannot hold would fail the whole batch, on every flush until it decays.
+        sorted.removeIf(symbol -> symbol.length() > StockService.MAX_SYMBOL_LENGTH);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        List<String> symbols = new ArrayList<>(sorted);
+        jdbcTemplate.batchUpdate(UPSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                String symbol = symbols.get(index);
+                statement.setString(1, symbol);
+                statement.setLong(2, newViews.getOrDefault(symbol, 0L));
+                statement.setDouble(3, viewScores.getOrDefault(symbol, 0d));
+                statement.setObject(4, scoredAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return symbols.size();
+            }
+        });
+    }
+}
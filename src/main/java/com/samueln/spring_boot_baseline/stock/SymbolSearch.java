@@ -0,0 +1,164 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolMatch;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataStockList;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Symbol and company-name search for typeahead, answered from an in-memory
+ * {@link SymbolSearchIndex} and never from upstream.
+ * <p>
+ * The index starts from the symbols bundled in {@value #BUNDLED_SYMBOLS}, so
+ * search works offline. Every {@code rebuild-interval} a new index is built in the
+ * background from those, Twelve Data's list of the country's stocks (fetched at
+ * background priority once per {@code symbol-list-refresh}) and the names of the
+ * profiles cached since, and then swapped in. Readers never wait for a rebuild.
+ */
+@Component
+public class SymbolSearch implements MeterBinder {
+
+    static final String BUNDLED_SYMBOLS = "stock-symbols.tsv";
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolSearch.class);
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 64;
+
+    private final TwelveDataClient twelveDataClient;
+    private final StockDataCache stockDataCache;
+    private final boolean fetchSymbolList;
+    private final String country;
+    private final long symbolListRefreshNanos;
+    private final Map<String, String> bundled;
+
+    // Only touched by rebuild().
+    private Map<String, String> listed = Map.of();
+    private long listedAt;
+
+    private volatile SymbolSearchIndex index;
+
+    public SymbolSearch(TwelveDataClient twelveDataClient,
+            StockDataCache stockDataCache,
+            @Value("${twelvedata.search.fetch-symbol-list}") boolean fetchSymbolList,
+            @Value("${twelvedata.search.country}") String country,
+            @Value("${twelvedata.search.symbol-list-refresh}") Duration symbolListRefresh) {
+        this.twelveDataClient = twelveDataClient;
+        this.stockDataCache = stockDataCache;
+        this.fetchSymbolList = fetchSymbolList;
+        this.country = country;
+        this.symbolListRefreshNanos = symbolListRefresh.toNanos();
+        this.bundled = loadBundled();
+        this.index = SymbolSearchIndex.build(bundled);
+    }
+
+    /**
+     * The best {@code limit} symbols matching {@code query}, by symbol or company
+     * name; empty for a blank query.
+     */
+    public List<SymbolMatch> search(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        return index.search(query, limit);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("stock.search.symbols", this, SymbolSearch::size)
+                .description("Symbols in the search index")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${twelvedata.search.rebuild-interval}",
+            initialDelayString = "${twelvedata.search.rebuild-interval}")
+    public synchronized void rebuild() {
+        if (fetchSymbolList && (listed.isEmpty() || System.nanoTime() - listedAt >= symbolListRefreshNanos)) {
+            refreshSymbolList();
+        }
+
+        // Later sources win: profiles carry the names summaries show.
+        Map<String, String> names = new HashMap<>(bundled);
+        names.putAll(listed);
+        names.putAll(stockDataCache.cachedProfileNames());
+        index = SymbolSearchIndex.build(names);
+    }
+
+    private void refreshSymbolList() {
+        try {
+            TwelveDataStockList list = twelveDataClient.fetchStockList(country, Priority.BACKGROUND);
+            if (list == null || list.data() == null) {
+                logger.warn("Twelve Data returned no stock list for {}", country);
+                return;
+            }
+            Map<String, String> names = new HashMap<>();
+            for (TwelveDataStockList.Stock stock : list.data()) {
+                String symbol = StockService.normalizeSymbol(stock.symbol());
+                // A symbol listed on several exchanges keeps its first name.
+                if (!symbol.isEmpty()) {
+                    names.putIfAbsent(symbol, stock.name());
+                }
+            }
+            listed = names;
+            listedAt = System.nanoTime();
+        } catch (RuntimeException e) {
+            logger.warn("Fetching the Twelve Data stock list failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the bundled {@code symbol<TAB>name} lines, skipping blank lines and
+     * {@code #} comments.
+     */
+    private static Map<String, String> loadBundled() {
+        Map<String, String> names = new HashMap<>();
+        InputStream input = SymbolSearch.class.getClassLoader().getResourceAsStream(BUNDLED_SYMBOLS);
+        if (input == null) {
+            logger.warn("No bundled symbols found at {}", BUNDLED_SYMBOLS);
+            return names;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", 2);
+                names.put(StockService.normalizeSymbol(fields[0]), fields.length > 1 ? fields[1].trim() : "");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return names;
+    }
+}
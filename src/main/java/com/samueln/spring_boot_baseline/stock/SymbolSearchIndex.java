@@ -0,0 +1,327 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.SymbolMatch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index over symbols and company names; rebuilt as a whole and
+ * swapped, never modified.
+ * <p>
+ * Symbols are kept in one sorted array, so the symbols starting with a query are a
+ * contiguous range found by binary search. Names are split into words, and the
+ * distinct words are kept in a second sorted array with the entries containing
+ * each word laid out contiguously in a postings array. Filler words such as
+ * "INC" are not indexed.
+ * <p>
+ * Matches rank, best first: exact symbol, symbol prefix, name starting with the
+ * query, any name word starting with the query, and then symbols and name words
+ * one typo (an edit or an adjacent transposition) away. Ties go to the shorter,
+ * then alphabetically first symbol. Each class is only searched while fewer than
+ * {@code limit} better matches were found.
+ */
+final class SymbolSearchIndex {
+
+    private static final int EXACT_SYMBOL = 0;
+    private static final int SYMBOL_PREFIX = 1;
+    private static final int NAME_PREFIX = 2;
+    private static final int WORD_PREFIX = 3;
+    private static final int SYMBOL_TYPO = 4;
+    private static final int WORD_TYPO = 5;
+
+    // Below these lengths nearly everything is one typo away.
+    private static final int MIN_SYMBOL_TYPO_LENGTH = 3;
+    private static final int MIN_WORD_TYPO_LENGTH = 4;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> FILLER_WORDS = Set.of("AG", "AND", "CLASS", "CO", "COMPANY", "CORP",
+            "CORPORATION", "INC", "LLC", "LP", "LTD", "NV", "OF", "PLC", "SA", "THE");
+
+    private final String[] symbols;
+    private final String[] names;
+    private final String[] upperNames;
+    // Symbol lengths, so most candidates can be ranked without loading their strings.
+    private final byte[] symbolLengths;
+    private final String[] words;
+    private final int[] postingStarts;
+    private final int[] postings;
+
+    private SymbolSearchIndex(String[] symbols, String[] names, String[] upperNames, byte[] symbolLengths,
+            String[] words, int[] postingStarts, int[] postings) {
+        this.symbols = symbols;
+        this.names = names;
+        this.upperNames = upperNames;
+        this.symbolLengths = symbolLengths;
+        this.words = words;
+        this.postingStarts = postingStarts;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds an index of {@code namesBySymbol}, whose keys must be normalized
+     * symbols.
+     */
+    static SymbolSearchIndex build(Map<String, String> namesBySymbol) {
+        TreeMap<String, String> sorted = new TreeMap<>(namesBySymbol);
+        String[] symbols = new String[sorted.size()];
+        String[] names = new String[sorted.size()];
+        String[] upperNames = new String[sorted.size()];
+        byte[] symbolLengths = new byte[sorted.size()];
+        TreeMap<String, List<Integer>> entriesByWord = new TreeMap<>();
+        int entry = 0;
+        for (Map.Entry<String, String> symbol : sorted.entrySet()) {
+            symbols[entry] = symbol.getKey();
+            names[entry] = symbol.getValue() == null ? "" : symbol.getValue().trim();
+            upperNames[entry] = names[entry].toUpperCase(Locale.US);
+            symbolLengths[entry] = (byte) Math.min(symbol.getKey().length(), Byte.MAX_VALUE);
+            for (String word : words(upperNames[entry])) {
+                if (!FILLER_WORDS.contains(word)) {
+                    List<Integer> entries = entriesByWord.computeIfAbsent(word, key -> new ArrayList<>());
+                    if (entries.isEmpty() || entries.getLast() != entry) {
+                        entries.add(entry);
+                    }
+                }
+            }
+            entry++;
+        }
+
+        String[] words = entriesByWord.keySet().toArray(String[]::new);
+        int[] postingStarts = new int[words.length + 1];
+        int[] postings = new int[entriesByWord.values().stream().mapToInt(List::size).sum()];
+        int word = 0;
+        int posting = 0;
+        for (List<Integer> entries : entriesByWord.values()) {
+            postingStarts[word++] = posting;
+            for (int wordEntry : entries) {
+                postings[posting++] = wordEntry;
+            }
+        }
+        postingStarts[word] = posting;
+        return new SymbolSearchIndex(symbols, names, upperNames, symbolLengths, words, postingStarts, postings);
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    List<SymbolMatch> search(String query, int limit) {
+        String normalized = query.trim().toUpperCase(Locale.US);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Matches matches = new Matches(limit, symbols.length);
+
+        int from = lowerBound(symbols, normalized);
+        int to = prefixEnd(symbols, normalized, from);
+        for (int entry = from; entry < to; entry++) {
+            matches.offer(symbols[entry].length() == normalized.length() ? EXACT_SYMBOL : SYMBOL_PREFIX, entry);
+        }
+
+        List<String> queryWords = words(normalized);
+        String lookupWord = queryWords.stream().filter(word -> !FILLER_WORDS.contains(word)).findFirst().orElse(null);
+        if (!matches.full() && lookupWord != null) {
+            int wordFrom = lowerBound(words, lookupWord);
+            int wordTo = prefixEnd(words, lookupWord, wordFrom);
+            for (int word = wordFrom; word < wordTo; word++) {
+                offerNameMatches(matches, word, queryWords, NAME_PREFIX, WORD_PREFIX);
+            }
+        }
+
+        if (!matches.full() && normalized.length() >= MIN_SYMBOL_TYPO_LENGTH) {
+            int first = lowerBound(symbols, normalized.substring(0, 1));
+            int last = prefixEnd(symbols, normalized.substring(0, 1), first);
+            for (int entry = first; entry < last; entry++) {
+                if (withinOneTypo(normalized, symbols[entry], symbols[entry].length())) {
+                    matches.offer(SYMBOL_TYPO, entry);
+                }
+            }
+        }
+
+        if (!matches.full() && lookupWord != null && lookupWord.length() >= MIN_WORD_TYPO_LENGTH) {
+            int first = lowerBound(words, lookupWord.substring(0, 1));
+            int last = prefixEnd(words, lookupWord.substring(0, 1), first);
+            for (int word = first; word < last; word++) {
+                if (prefixWithinOneTypo(lookupWord, words[word])) {
+                    offerNameMatches(matches, word, queryWords, WORD_TYPO, WORD_TYPO);
+                }
+            }
+        }
+
+        return matches.results();
+    }
+
+    /**
+     * Offers the entries containing {@code word} whose names also contain a word
+     * starting with each of the other query words.
+     */
+    private void offerNameMatches(Matches matches, int word, List<String> queryWords, int startClass,
+            int wordClass) {
+        for (int posting = postingStarts[word]; posting < postingStarts[word + 1]; posting++) {
+            int entry = postings[posting];
+            // Most candidates of a common word cannot beat the matches so far.
+            if (!matches.accepts(startClass, entry)) {
+                continue;
+            }
+            String name = upperNames[entry];
+            boolean startsName = name.startsWith(words[word]);
+            if (!startsName && !matches.accepts(wordClass, entry)) {
+                continue;
+            }
+            if (queryWords.size() < 2 || containsWordPrefixes(name, queryWords)) {
+                matches.offer(startsName ? startClass : wordClass, entry);
+            }
+        }
+    }
+
+    private static boolean containsWordPrefixes(String upperName, List<String> queryWords) {
+        for (String queryWord : queryWords) {
+            if (!containsWordPrefix(upperName, queryWord)
+                    // The lookup word may have matched with a typo.
+                    && words(upperName).stream().noneMatch(word -> prefixWithinOneTypo(queryWord, word))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsWordPrefix(String upperName, String prefix) {
+        for (int i = 0; i + prefix.length() <= upperName.length(); i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(upperName.charAt(i - 1));
+            if (wordStart && upperName.startsWith(prefix, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(text)).filter(word -> !word.isEmpty()).toList();
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int prefixEnd(String[] sorted, String prefix, int from) {
+        int low = from;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Whether {@code query} is one typo away from a prefix of {@code word} about as
+     * long as the query.
+     */
+    private static boolean prefixWithinOneTypo(String query, String word) {
+        for (int length = query.length() - 1; length <= query.length() + 1; length++) {
+            if (length >= 1 && length <= word.length() && withinOneTypo(query, word, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code a} and the first {@code length} characters of {@code b} are at
+     * most one insertion, deletion, substitution or adjacent transposition apart.
+     * Linear, since only one difference is allowed.
+     */
+    static boolean withinOneTypo(String a, String b, int length) {
+        if (Math.abs(a.length() - length) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == a.length() && i == length) {
+            return true;
+        }
+        if (a.length() == length) {
+            return a.regionMatches(i + 1, b, i + 1, length - i - 1)
+                    || (i + 1 < length && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                            && a.regionMatches(i + 2, b, i + 2, length - i - 2));
+        }
+        return a.length() > length
+                ? a.regionMatches(i + 1, b, i, length - i)
+                : a.regionMatches(i, b, i + 1, a.length() - i);
+    }
+
+    /**
+     * The best {@code limit} matches so far, as ascending keys of match class,
+     * symbol length and entry. Entries are in symbol order, so equal classes and
+     * lengths rank alphabetically.
+     */
+    private final class Matches {
+
+        private final long[] best;
+        private final BitSet offered;
+        private int count;
+
+        Matches(int limit, int entries) {
+            this.best = new long[limit];
+            this.offered = new BitSet(entries);
+        }
+
+        boolean full() {
+            return count == best.length;
+        }
+
+        /**
+         * Whether a new match of {@code entry} in {@code matchClass} would be kept.
+         */
+        boolean accepts(int matchClass, int entry) {
+            return !offered.get(entry) && (!full() || key(matchClass, entry) < best[count - 1]);
+        }
+
+        /**
+         * Classes are offered best first, so an entry keeps the class it was first
+         * offered with.
+         */
+        void offer(int matchClass, int entry) {
+            if (offered.get(entry)) {
+                return;
+            }
+            offered.set(entry);
+            long key = key(matchClass, entry);
+            if (full() && key >= best[count - 1]) {
+                return;
+            }
+            int position = full() ? count - 1 : count++;
+            while (position > 0 && best[position - 1] > key) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = key;
+        }
+
+        private long key(int matchClass, int entry) {
+            return (long) matchClass << 48 | (long) symbolLengths[entry] << 32 | entry;
+        }
+
+        List<SymbolMatch> results() {
+            List<SymbolMatch> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int entry = (int) best[i];
+                results.add(new SymbolMatch(symbols[entry], names[entry]));
+            }
+            return results;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Chart ranges a summary can cover. The short ranges are cut from one cached
+ * intraday series, the longer ones from the persisted daily history, so switching
+ * ranges never needs an upstream call of its own.
+ */
+public enum Timeline {
+
+    ONE_DAY("1D", true, null),
+    ONE_WEEK("1W", true, Period.ofWeeks(1)),
+    ONE_MONTH("1M", true, Period.ofMonths(1)),
+    SIX_MONTHS("6M", false, Period.ofMonths(6)),
+    ONE_YEAR("1Y", false, Period.ofYears(1)),
+    FIVE_YEARS("5Y", false, Period.ofYears(5)),
+    MAX("MAX", false, null);
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final String label;
+    private final boolean intraday;
+    private final Period period;
+
+    Timeline(String label, boolean intraday, Period period) {
+        this.label = label;
+        this.intraday = intraday;
+        this.period = period;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Whether the range is cut from the intraday series rather than daily history.
+     */
+    public boolean intraday() {
+        return intraday;
+    }
+
+    /**
+     * The bars of {@code series} this range covers, counted back from its newest bar
+     * rather than from now, so ranges stay full over weekends and holidays. One day
+     * is the newest bar's session.
+     */
+    public PriceSeries window(PriceSeries series) {
+        if (series.isEmpty() || this == MAX) {
+            return series;
+        }
+        long newest = series.time(series.size() - 1);
+        if (this == ONE_DAY) {
+            return series.since(Math.floorDiv(newest, SECONDS_PER_DAY) * SECONDS_PER_DAY);
+        }
+        return series.since(LocalDateTime.ofEpochSecond(newest, 0, ZoneOffset.UTC)
+                .minus(period)
+                .toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public static Timeline parse(String label) {
+        for (Timeline timeline : values()) {
+            if (timeline.label.equalsIgnoreCase(label.trim())) {
+                return timeline;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown timeline: " + label + ", expected one of "
+                + Arrays.stream(values()).map(Timeline::label).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,354 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Outcome;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataProfile;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataQuote;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataResponse;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataStockList;
+import com.samueln.spring_boot_baseline.stock.dto.twelvedata.TwelveDataTimeSeriesDecoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.util.UriTemplate;
+
+/**
+ * Thin wrapper around the Twelve Data REST API.
+ * <p>
+ * The multi-symbol variants send one comma-separated request. Twelve Data answers
+ * those with an object keyed by symbol, where each entry may individually be an
+ * error body. Every call passes the endpoint's {@link CircuitBreaker} and is
+ * admitted by the {@link UpstreamLimiter} before it is sent, and reports its
+ * outcome back to both.
+ * <p>
+ * Interactive single-symbol calls are hedged: when one has not answered within the
+ * endpoint's recent p95 latency, an identical second request is sent if the
+ * limiter has spare capacity for it right away, and whichever succeeds first wins.
+ * The slower request is left to finish, since its credits are already spent.
+ * <p>
+ * Requests go through the {@code twelveDataRestClient} from
+ * {@link com.samueln.spring_boot_baseline.config.TwelveDataHttpConfig}. URLs are
+ * expanded from templates parsed once, at construction.
+ */
+@Component
+public class TwelveDataClient {
+
+    /** Credits Twelve Data charges per symbol on each endpoint. */
+    static final int QUOTE_CREDITS = 1;
+    static final int PROFILE_CREDITS = 10;
+    static final int TIME_SERIES_CREDITS = 1;
+    static final int STOCK_LIST_CREDITS = 1;
+
+    private static final ParameterizedTypeReference<Map<String, TwelveDataQuote>> QUOTE_MAP = new ParameterizedTypeReference<Map<String, TwelveDataQuote>>() {
+    };
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final DefaultResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
+
+    private final RestClient restClient;
+    private final UpstreamLimiter limiter;
+    private final UpstreamCircuitBreakers circuitBreakers;
+    private final String apiKey;
+    private final boolean hedging;
+    private final long hedgeMinDelayNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    // Hedged calls block on I/O, so each attempt gets its own virtual thread.
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final UriTemplate quoteUri;
+    private final UriTemplate profileUri;
+    private final UriTemplate timeSeriesUri;
+    private final UriTemplate timeSeriesSinceUri;
+    private final UriTemplate stockListUri;
+
+    public TwelveDataClient(RestClient twelveDataRestClient,
+            UpstreamLimiter limiter,
+            UpstreamCircuitBreakers circuitBreakers,
+            @Value("${twelvedata.api.key}") String apiKey,
+            @Value("${twelvedata.base-url}") String baseUrl,
+            @Value("${twelvedata.hedge.enabled}") boolean hedging,
+            @Value("${twelvedata.hedge.min-delay}") Duration hedgeMinDelay,
+            MeterRegistry meterRegistry) {
+        this.restClient = twelveDataRestClient;
+        this.limiter = limiter;
+        this.circuitBreakers = circuitBreakers;
+        this.apiKey = apiKey;
+        this.hedging = hedging;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.quoteUri = new UriTemplate(baseUrl + "/quote?symbol={symbol}&apikey={apikey}");
+        this.profileUri = new UriTemplate(baseUrl + "/profile?symbol={symbol}&apikey={apikey}");
+        this.timeSeriesUri = new UriTemplate(
+                baseUrl + "/time_series?symbol={symbol}&interval={interval}&outputsize={outputsize}&apikey={apikey}");
+        this.timeSeriesSinceUri = new UriTemplate(baseUrl + "/time_series?symbol={symbol}&interval={interval}"
+                + "&start_date={start_date}&outputsize={outputsize}&apikey={apikey}");
+        this.stockListUri = new UriTemplate(baseUrl + "/stocks?country={country}&apikey={apikey}");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    public TwelveDataQuote fetchQuote(String symbol, Priority priority) {
+        URI url = quoteUri.expand(symbol, apiKey);
+        return hedged("quote", priority, QUOTE_CREDITS, () -> restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(TwelveDataQuote.class));
+    }
+
+    /**
+     * Returns the profile, which is an error body when upstream could not answer;
+     * see {@link TwelveDataProfile#isError()}.
+     */
+    public TwelveDataProfile fetchProfile(String symbol, Priority priority) {
+        URI url = profileUri.expand(symbol, apiKey);
+        return hedged("profile", priority, PROFILE_CREDITS, () -> restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(TwelveDataProfile.class));
+    }
+
+    /**
+     * Fetches the newest {@code outputSize} bars of {@code interval}, such as
+     * {@code 5min} or {@code 1day}. Returns {@code null} when upstream answered with
+     * an error body.
+     */
+    public PriceSeries fetchTimeSeries(String symbol, String interval, int outputSize, Priority priority) {
+        return fetchTimeSeries(List.of(symbol), interval, outputSize, null, priority).get(symbol);
+    }
+
+    /**
+     * Lists every stock traded in {@code country}: a large but rarely changing
+     * response, fetched in the background for symbol search.
+     */
+    public TwelveDataStockList fetchStockList(String country, Priority priority) {
+        URI url = stockListUri.expand(country, apiKey);
+        return limited("stocks", priority, STOCK_LIST_CREDITS, () -> restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(TwelveDataStockList.class));
+    }
+
+    public Map<String, TwelveDataQuote> fetchQuotes(List<String> symbols, Priority priority) {
+        if (symbols.size() == 1) {
+            // A single-symbol request is answered with a bare object rather than a keyed one.
+            return Collections.singletonMap(symbols.get(0), fetchQuote(symbols.get(0), priority));
+        }
+        URI url = quoteUri.expand(String.join(",", symbols), apiKey);
+        Map<String, TwelveDataQuote> quotes = limited("quote", priority, QUOTE_CREDITS * symbols.size(),
+                () -> restClient.get()
+                .uri(url)
+                .retrieve()
+                .body(QUOTE_MAP));
+        return quotes == null ? Map.of() : quotes;
+    }
+
+    /**
+     * Series are decoded from the response stream without binding intermediate DTOs;
+     * see {@link TwelveDataTimeSeriesDecoder}. When {@code startDate} is set only bars
+     * on or after it are returned, which lets callers sync history incrementally.
+     * Symbols upstream answered with an error are absent from the result.
+     */
+    public Map<String, PriceSeries> fetchTimeSeries(List<String> symbols, String interval, int outputSize,
+            LocalDate startDate, Priority priority) {
+        URI url = timeSeriesUrl(String.join(",", symbols), interval, outputSize, startDate);
+        Supplier<Map<String, PriceSeries>> call = () -> restClient.get()
+                .uri(url)
+                .exchange((request, response) -> {
+                    if (ERROR_HANDLER.hasError(response)) {
+                        ERROR_HANDLER.handleError(request.getURI(), request.getMethod(), response);
+                    }
+                    return TwelveDataTimeSeriesDecoder.decode(response.getBody(), symbols);
+                });
+        return symbols.size() == 1
+                ? hedged("time_series", priority, TIME_SERIES_CREDITS, call)
+                : limited("time_series", priority, TIME_SERIES_CREDITS * symbols.size(), call);
+    }
+
+    private <T> T limited(String endpoint, Priority priority, int credits, Supplier<T> call) {
+        CircuitBreaker breaker = circuitBreakers.acquire(endpoint);
+        return attempt(endpoint, breaker, limiter.acquire(priority, credits), null, call);
+    }
+
+    /**
+     * Like {@link #limited}, but sends a second request when the first is slower
+     * than the endpoint's recent p95 and the limiter can admit it immediately. The
+     * first success is returned; if one request fails the other is awaited.
+     * Background calls, and calls before enough latencies were seen, are not hedged.
+     */
+    private <T> T hedged(String endpoint, Priority priority, int credits, Supplier<T> call) {
+        LatencyWindow window = latencies.computeIfAbsent(endpoint, key -> new LatencyWindow());
+        long p95 = window.p95Nanos();
+        CircuitBreaker breaker = circuitBreakers.acquire(endpoint);
+        UpstreamLimiter.Permit permit = limiter.acquire(priority, credits);
+        if (!hedging || priority != Priority.INTERACTIVE || p95 < 0) {
+            return attempt(endpoint, breaker, permit, window, call);
+        }
+        CompletionService<T> attempts = new ExecutorCompletionService<>(hedgeExecutor);
+        Future<T> primary = attempts.submit(() -> attempt(endpoint, breaker, permit, window, call));
+        try {
+            Future<T> first = attempts.poll(Math.max(p95, hedgeMinDelayNanos), TimeUnit.NANOSECONDS);
+            if (first != null) {
+                return result(first);
+            }
+            UpstreamLimiter.Permit hedgePermit = breaker.state() == CircuitBreaker.State.CLOSED
+                    ? limiter.tryAcquire(credits)
+                    : null;
+            if (hedgePermit == null) {
+                return result(primary);
+            }
+            attempts.submit(() -> attempt(endpoint, breaker, hedgePermit, window, call));
+            Future<T> winner = attempts.take();
+            try {
+                T response = result(winner);
+                countHedge(endpoint, winner == primary ? "primary" : "hedge");
+                return response;
+            } catch (RuntimeException e) {
+                Future<T> other = attempts.take();
+                T response = result(other);
+                countHedge(endpoint, other == primary ? "primary" : "hedge");
+                return response;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamLimitExceededException("Interrupted while waiting for Twelve Data");
+        }
+    }
+
+    private void countHedge(String endpoint, String winner) {
+        Counter.builder("twelvedata.hedges")
+                .description("Hedged Twelve Data calls, by which request answered first")
+                .tag("endpoint", endpoint)
+                .tag("winner", winner)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static <T> T result(Future<T> attempt) throws InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Runs {@code call} under an admitted permit and times it as
+     * {@code twelvedata.requests}, tagged with the endpoint, the outcome reported to
+     * the limiter and the HTTP status. Time spent waiting for the permit is not
+     * included. Server errors and timeouts count as failures for the circuit
+     * breaker, while malformed bodies are told apart from timeouts and count as
+     * neither; successful latencies feed {@code window} when given.
+     */
+    private <T> T attempt(String endpoint, CircuitBreaker breaker, UpstreamLimiter.Permit permit,
+            LatencyWindow window, Supplier<T> call) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.FAILED;
+        String status = "UNKNOWN";
+        try {
+            T response = call.get();
+            // Errors, credit exhaustion included, may also arrive as a body with a 200 status.
+            if (response instanceof TwelveDataResponse body && body.isError()) {
+                boolean throttled = body.code() != null && body.code() == TOO_MANY_REQUESTS;
+                outcome = throttled ? Outcome.THROTTLED : Outcome.FAILED;
+                status = body.code() != null ? String.valueOf(body.code()) : "ERROR_BODY";
+            } else {
+                outcome = Outcome.SUCCESS;
+                status = "200";
+            }
+            return response;
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            outcome = Outcome.THROTTLED;
+            status = String.valueOf(TOO_MANY_REQUESTS);
+            throw e;
+        } catch (HttpStatusCodeException e) {
+            status = String.valueOf(e.getStatusCode().value());
+            throw e;
+        } catch (ResourceAccessException e) {
+            // Decoding from the response stream also fails with an IOException, which is not a timeout.
+            if (isMalformedBody(e)) {
+                status = "MALFORMED_BODY";
+            } else {
+                outcome = Outcome.TIMED_OUT;
+                status = "IO_ERROR";
+            }
+            throw e;
+        } catch (RestClientException e) {
+            if (isMalformedBody(e)) {
+                status = "MALFORMED_BODY";
+            }
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            permit.release(outcome);
+            if (outcome == Outcome.TIMED_OUT || status.startsWith("5")) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            if (window != null && outcome == Outcome.SUCCESS) {
+                window.record(elapsed);
+            }
+            Timer.builder("twelvedata.requests")
+                    .description("Twelve Data calls, excluding time spent waiting for the limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome.name())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Whether the call failed because the response body could not be decoded,
+     * rather than because upstream was unreachable or slow.
+     */
+    static boolean isMalformedBody(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException || cause instanceof HttpMessageNotReadableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private URI timeSeriesUrl(String symbols, String interval, int outputSize, LocalDate startDate) {
+        if (startDate == null) {
+            return timeSeriesUri.expand(symbols, interval, outputSize, apiKey);
+        }
+        return timeSeriesSinceUri.expand(symbols, interval, startDate, outputSize, apiKey);
+    }
+}
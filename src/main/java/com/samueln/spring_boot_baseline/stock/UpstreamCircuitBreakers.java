@@ -0,0 +1,68 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link CircuitBreaker} per Twelve Data endpoint, so a degraded endpoint
+ * (say, time series) stops being called without cutting off the others.
+ * <p>
+ * Each breaker publishes {@code twelvedata.circuit-breaker.state} (0 closed,
+ * 1 open, 2 half-open) and counts the calls it rejected in
+ * {@code twelvedata.circuit-breaker.rejected}.
+ */
+@Component
+public class UpstreamCircuitBreakers {
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamCircuitBreakers(@Value("${twelvedata.circuit-breaker.window-size}") int windowSize,
+            @Value("${twelvedata.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${twelvedata.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${twelvedata.circuit-breaker.open-duration}") Duration openDuration,
+            MeterRegistry meterRegistry) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Admits a call to {@code endpoint}, or throws
+     * {@link UpstreamLimitExceededException} while its breaker is open. An admitted
+     * call must report its result to the returned breaker.
+     */
+    public CircuitBreaker acquire(String endpoint) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(endpoint, this::create);
+        if (!breaker.tryAcquire()) {
+            Counter.builder("twelvedata.circuit-breaker.rejected")
+                    .description("Calls rejected while the endpoint's circuit breaker was open")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            throw new UpstreamLimitExceededException("Twelve Data " + endpoint + " is unavailable, retry shortly");
+        }
+        return breaker;
+    }
+
+    private CircuitBreaker create(String endpoint) {
+        CircuitBreaker breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration);
+        Gauge.builder("twelvedata.circuit-breaker.state", breaker, b -> b.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return breaker;
+    }
+}
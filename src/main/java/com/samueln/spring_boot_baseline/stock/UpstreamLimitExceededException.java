@@ -0,0 +1,12 @@
+package com.samueln.spring_boot_baseline.stock;
+
+/**
+ * Thrown when an upstream call cannot be admitted by {@link UpstreamLimiter}
+ * within its maximum wait, or while the endpoint's {@link CircuitBreaker} is open.
+ */
+public class UpstreamLimitExceededException extends RuntimeException {
+
+    public UpstreamLimitExceededException(String message) {
+        super(message);
+    }
+}
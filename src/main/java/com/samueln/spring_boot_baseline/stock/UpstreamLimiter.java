@@ -0,0 +1,267 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client-side limiter in front of every Twelve Data call.
+ * <p>
+ * Three mechanisms work together:
+ * <ul>
+ * <li>a token bucket holding the plan's per-minute credits, refilled continuously;</li>
+ * <li>an adaptive (AIMD) concurrency limit that grows by about one for every
+ * limit's worth of successful calls and halves when upstream throttles or times
+ * out;</li>
+ * <li>a priority queue, so interactive calls are admitted ahead of background
+ * refresh.</li>
+ * </ul>
+ * Waiters are admitted strictly in queue order. A call that is not admitted within
+ * its priority's maximum wait fails with {@link UpstreamLimitExceededException}.
+ */
+@Component
+public class UpstreamLimiter implements MeterBinder {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        /** Upstream rejected the call for lack of credits. */
+        THROTTLED,
+        /** The call timed out or could not connect. */
+        TIMED_OUT,
+        /** Any other failure; it says nothing about upstream capacity. */
+        FAILED
+    }
+
+    private static final int MIN_CONCURRENCY = 1;
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private final double capacity;
+    private final double creditsPerNano;
+    private final int maxConcurrency;
+    private final long maxWaitNanos;
+    private final long backgroundMaxWaitNanos;
+
+    private double tokens;
+    private long lastRefill;
+    private double concurrencyLimit;
+    private int inFlight;
+    private long sequence;
+
+    public UpstreamLimiter(@Value("${twelvedata.credits-per-minute}") int creditsPerMinute,
+            @Value("${twelvedata.limiter.initial-concurrency}") int initialConcurrency,
+            @Value("${twelvedata.limiter.max-concurrency}") int maxConcurrency,
+            @Value("${twelvedata.limiter.max-wait}") Duration maxWait,
+            @Value("${twelvedata.limiter.background-max-wait}") Duration backgroundMaxWait) {
+        this.capacity = creditsPerMinute;
+        this.creditsPerNano = creditsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.backgroundMaxWaitNanos = backgroundMaxWait.toNanos();
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.concurrencyLimit = Math.clamp(initialConcurrency, MIN_CONCURRENCY, maxConcurrency);
+    }
+
+    /**
+     * Waits until the call may proceed. Costs above the bucket capacity are capped
+     * at the capacity, so such calls wait for a full bucket instead of forever.
+     */
+    public Permit acquire(Priority priority, int credits) {
+        double cost = Math.min(credits, capacity);
+        long deadline = System.nanoTime() + maxWaitNanos(priority);
+
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    refill(now);
+                    boolean admissible = waiters.peek() == waiter && inFlight < (int) concurrencyLimit;
+                    if (admissible && tokens >= cost) {
+                        waiters.poll();
+                        tokens -= cost;
+                        inFlight++;
+                        signalHead();
+                        return new Permit();
+                    }
+
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        throw new UpstreamLimitExceededException("Twelve Data capacity exhausted, retry shortly");
+                    }
+                    long wait = admissible
+                            ? Math.min(remaining, (long) Math.ceil((cost - tokens) / creditsPerNano))
+                            : remaining;
+                    waiter.condition().awaitNanos(wait);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamLimitExceededException("Interrupted while waiting for Twelve Data capacity");
+            } finally {
+                if (waiters.remove(waiter)) {
+                    signalHead();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Admits the call only if it could run right now without waiting or jumping the
+     * queue, otherwise returns {@code null}. Used for optional extra calls such as
+     * hedges, which should only spend spare capacity.
+     */
+    public Permit tryAcquire(int credits) {
+        double cost = Math.min(credits, capacity);
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (!waiters.isEmpty() || inFlight >= (int) concurrencyLimit || tokens < cost) {
+                return null;
+            }
+            tokens -= cost;
+            inFlight++;
+            return new Permit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * How long a call of {@code priority} may wait for admission.
+     */
+    public Duration maxWait(Priority priority) {
+        return Duration.ofNanos(maxWaitNanos(priority));
+    }
+
+    private long maxWaitNanos(Priority priority) {
+        return priority == Priority.INTERACTIVE ? maxWaitNanos : backgroundMaxWaitNanos;
+    }
+
+    public int queueDepth() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double concurrencyLimit() {
+        lock.lock();
+        try {
+            return concurrencyLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double availableCredits() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("twelvedata.limiter.queue.depth", this, UpstreamLimiter::queueDepth)
+                .description("Calls waiting for upstream capacity")
+                .register(registry);
+        Gauge.builder("twelvedata.limiter.in.flight", this, UpstreamLimiter::inFlight)
+                .description("Upstream calls currently admitted")
+                .register(registry);
+        Gauge.builder("twelvedata.limiter.concurrency.limit", this, UpstreamLimiter::concurrencyLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("twelvedata.limiter.credits.available", this, UpstreamLimiter::availableCredits)
+                .description("Credits left in the token bucket")
+                .register(registry);
+    }
+
+    private void release(Outcome outcome) {
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+                case THROTTLED -> {
+                    concurrencyLimit = Math.max(MIN_CONCURRENCY, concurrencyLimit * DECREASE_FACTOR);
+                    // Upstream says this minute's credits are gone, whatever the local estimate is.
+                    tokens = 0;
+                }
+                case TIMED_OUT -> concurrencyLimit = Math.max(MIN_CONCURRENCY, concurrencyLimit * DECREASE_FACTOR);
+                case FAILED -> {
+                }
+            }
+            signalHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * creditsPerNano);
+        lastRefill = now;
+    }
+
+    private void signalHead() {
+        Waiter head = waiters.peek();
+        if (head != null) {
+            head.condition().signal();
+        }
+    }
+
+    private record Waiter(Priority priority, long sequence, Condition condition) {
+    }
+
+    /**
+     * Admission to make one upstream call. Must be released exactly once with the
+     * call's outcome; further releases are ignored.
+     */
+    public final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        public void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                UpstreamLimiter.this.release(outcome);
+            }
+        }
+    }
+}
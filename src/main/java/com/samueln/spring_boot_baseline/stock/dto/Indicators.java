@@ -0,0 +1,21 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+/**
+ * Technical indicators over daily bars, as of the newest bar. A value is absent
+ * when there are too few bars for its period.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Indicators(
+        Double week52High,
+        Double week52Low,
+        Double sma50,
+        Double sma200,
+        Double ema20,
+        Double rsi14,
+        Double volatility20,
+        Double vwap20) {
+}
@@ -0,0 +1,337 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * OHLCV bars stored column by column in primitive arrays, oldest first.
+ * <p>
+ * Times are epoch seconds of the bar's exchange-local date and time read as if it
+ * were UTC, so daily and monthly bars fall on midnight and labels can be derived
+ * without a time zone. The arrays are owned by the series and never exposed to
+ * callers.
+ * <p>
+ * In JSON a series is an object of parallel arrays, {@code t}, {@code o},
+ * {@code h}, {@code l}, {@code c} and {@code v}, instead of an array of bar objects.
+ * {@link #toBinary()} gives an even more compact form for clients that opt in.
+ */
+@JsonPropertyOrder({"interval", "t", "o", "h", "l", "c", "v"})
+public final class PriceSeries {
+
+    /** Media type of the {@link #toBinary()} encoding. */
+    public static final String BINARY_MEDIA_TYPE = "application/vnd.price-series";
+
+    private static final byte BINARY_VERSION = 1;
+
+    private static final PriceSeries EMPTY = new PriceSeries(null, new long[0], new double[0], new double[0],
+            new double[0], new double[0], new long[0]);
+
+    private final String interval;
+    private final long[] times;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    @JsonCreator
+    private PriceSeries(@JsonProperty("interval") String interval,
+            @JsonProperty("t") long[] times,
+            @JsonProperty("o") double[] open,
+            @JsonProperty("h") double[] high,
+            @JsonProperty("l") double[] low,
+            @JsonProperty("c") double[] close,
+            @JsonProperty("v") long[] volume) {
+        int size = Objects.requireNonNull(times, "times").length;
+        if (Objects.requireNonNull(open, "open").length != size || Objects.requireNonNull(high, "high").length != size
+                || Objects.requireNonNull(low, "low").length != size
+                || Objects.requireNonNull(close, "close").length != size
+                || Objects.requireNonNull(volume, "volume").length != size) {
+            throw new IllegalArgumentException("Price series columns must have the same length");
+        }
+        this.interval = interval;
+        this.times = times;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @JsonProperty("interval")
+    public String interval() {
+        return interval;
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+
+    public long time(int index) {
+        return times[index];
+    }
+
+    public double open(int index) {
+        return open[index];
+    }
+
+    public double high(int index) {
+        return high[index];
+    }
+
+    public double low(int index) {
+        return low[index];
+    }
+
+    public double close(int index) {
+        return close[index];
+    }
+
+    public long volume(int index) {
+        return volume[index];
+    }
+
+    /**
+     * The newest {@code count} bars.
+     */
+    public PriceSeries last(int count) {
+        return slice(Math.max(size() - count, 0), size());
+    }
+
+    /**
+     * The bars at or after {@code time}.
+     */
+    public PriceSeries since(long time) {
+        int index = Arrays.binarySearch(times, time);
+        if (index < 0) {
+            return slice(-index - 1, size());
+        }
+        // Times are unique, so an exact match is the first bar at that time.
+        return slice(index, size());
+    }
+
+    /**
+     * The bars from index {@code from}, inclusive, to {@code to}, exclusive.
+     */
+    public PriceSeries slice(int from, int to) {
+        if (from == 0 && to == size()) {
+            return this;
+        }
+        return new PriceSeries(interval,
+                Arrays.copyOfRange(times, from, to),
+                Arrays.copyOfRange(open, from, to),
+                Arrays.copyOfRange(high, from, to),
+                Arrays.copyOfRange(low, from, to),
+                Arrays.copyOfRange(close, from, to),
+                Arrays.copyOfRange(volume, from, to));
+    }
+
+    /**
+     * Encodes the series as a version byte, the length-prefixed UTF-8 interval, the bar
+     * count and then each column in turn, big-endian: 48 bytes per bar.
+     */
+    public byte[] toBinary() {
+        byte[] intervalBytes = interval == null ? new byte[0] : interval.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + intervalBytes.length + 4 + size() * 48);
+        buffer.put(BINARY_VERSION).putShort((short) intervalBytes.length).put(intervalBytes).putInt(size());
+        buffer.asLongBuffer().put(times);
+        buffer.position(buffer.position() + size() * Long.BYTES);
+        for (double[] column : new double[][] {open, high, low, close}) {
+            buffer.asDoubleBuffer().put(column);
+            buffer.position(buffer.position() + size() * Double.BYTES);
+        }
+        buffer.asLongBuffer().put(volume);
+        return buffer.array();
+    }
+
+    public static PriceSeries fromBinary(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != BINARY_VERSION) {
+            throw new IllegalArgumentException("Unsupported price series encoding");
+        }
+        byte[] intervalBytes = new byte[buffer.getShort()];
+        buffer.get(intervalBytes);
+        int size = buffer.getInt();
+        long[] times = new long[size];
+        double[][] prices = new double[4][size];
+        long[] volume = new long[size];
+        buffer.asLongBuffer().get(times);
+        buffer.position(buffer.position() + size * Long.BYTES);
+        for (double[] column : prices) {
+            buffer.asDoubleBuffer().get(column);
+            buffer.position(buffer.position() + size * Double.BYTES);
+        }
+        buffer.asLongBuffer().get(volume);
+        return new PriceSeries(intervalBytes.length == 0 ? null : new String(intervalBytes, StandardCharsets.UTF_8),
+                times, prices[0], prices[1], prices[2], prices[3], volume);
+    }
+
+    @JsonProperty("t")
+    private long[] timesColumn() {
+        return times;
+    }
+
+    @JsonProperty("o")
+    private double[] openColumn() {
+        return open;
+    }
+
+    @JsonProperty("h")
+    private double[] highColumn() {
+        return high;
+    }
+
+    @JsonProperty("l")
+    private double[] lowColumn() {
+        return low;
+    }
+
+    @JsonProperty("c")
+    private double[] closeColumn() {
+        return close;
+    }
+
+    @JsonProperty("v")
+    private long[] volumeColumn() {
+        return volume;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof PriceSeries series
+                && Objects.equals(interval, series.interval)
+                && Arrays.equals(times, series.times)
+                && Arrays.equals(open, series.open)
+                && Arrays.equals(high, series.high)
+                && Arrays.equals(low, series.low)
+                && Arrays.equals(close, series.close)
+                && Arrays.equals(volume, series.volume);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(interval, Arrays.hashCode(times), Arrays.hashCode(close));
+    }
+
+    @Override
+    public String toString() {
+        return "PriceSeries[interval=" + interval + ", size=" + size() + "]";
+    }
+
+    /**
+     * Collects bars in either chronological order. Appending a bar whose time equals
+     * the previous one replaces it, so later sources override earlier ones.
+     */
+    public static final class Builder {
+
+        private String interval;
+        private long[] times;
+        private double[] open;
+        private double[] high;
+        private double[] low;
+        private double[] close;
+        private long[] volume;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.times = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+        }
+
+        public Builder interval(String interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Builder add(long time, double open, double high, double low, double close, long volume) {
+            int index = size > 0 && times[size - 1] == time ? size - 1 : size++;
+            if (index == times.length) {
+                grow();
+            }
+            this.times[index] = time;
+            this.open[index] = open;
+            this.high[index] = high;
+            this.low[index] = low;
+            this.close[index] = close;
+            this.volume[index] = volume;
+            return this;
+        }
+
+        /**
+         * Trims the arrays to size and reverses them if the bars were added newest first.
+         */
+        public PriceSeries build() {
+            PriceSeries series = new PriceSeries(interval,
+                    Arrays.copyOf(times, size),
+                    Arrays.copyOf(open, size),
+                    Arrays.copyOf(high, size),
+                    Arrays.copyOf(low, size),
+                    Arrays.copyOf(close, size),
+                    Arrays.copyOf(volume, size));
+            if (size > 1 && series.times[0] > series.times[size - 1]) {
+                reverse(series.times);
+                reverse(series.open);
+                reverse(series.high);
+                reverse(series.low);
+                reverse(series.close);
+                reverse(series.volume);
+            }
+            return series;
+        }
+
+        private void grow() {
+            int capacity = times.length * 2;
+            times = Arrays.copyOf(times, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+
+        private static void reverse(long[] values) {
+            for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+                long value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+
+        private static void reverse(double[] values) {
+            for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+                double value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+public record QuoteTick(
+        String symbol,
+        String datetime,
+        double price,
+        double change,
+        double changePercent,
+        double volume) {
+}
@@ -1,10 +1,12 @@
 package com.samueln.spring_boot_baseline.stock.dto;
 
-import java.util.List;
-
 import lombok.Builder;
 
-@Builder
+/**
+ * A {@code stale} summary is the last one built successfully, served because
+ * upstream failed; it is being rebuilt in the background.
+ */
+@Builder(toBuilder = true)
 public record StockSummary(
         String symbol,
         String companyName,
@@ -18,9 +20,9 @@ public record StockSummary(
         double week52High,
         double week52Low,
         double yearStartPrice,
+        Indicators indicators,
         String description,
-        List<PricePoint> priceSeries) {
-
-    public record PricePoint(String label, double value) {
-    }
+        PriceSeries priceSeries,
+        boolean partial,
+        boolean stale) {
 }
@@ -0,0 +1,10 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A symbol matching a search query.")
+public record SymbolMatch(
+        @Schema(description = "Stock symbol.", example = "AAPL") String symbol,
+
+        @Schema(description = "Company name, empty when unknown.", example = "Apple Inc.") String name) {
+}
@@ -0,0 +1,33 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Per-symbol entry of a batch summary response. {@code summary} is set when the
+ * status is {@link Status#READY} and {@code error} when it is {@link Status#ERROR}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SymbolSummary(
+        String symbol,
+        Status status,
+        StockSummary summary,
+        String error) {
+
+    public enum Status {
+        READY,
+        PENDING,
+        ERROR
+    }
+
+    public static SymbolSummary success(String symbol, StockSummary summary) {
+        return new SymbolSummary(symbol, Status.READY, summary, null);
+    }
+
+    public static SymbolSummary pending(String symbol) {
+        return new SymbolSummary(symbol, Status.PENDING, null, null);
+    }
+
+    public static SymbolSummary failure(String symbol, String error) {
+        return new SymbolSummary(symbol, Status.ERROR, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A symbol's place in a trending ranking.")
+public record TrendingSymbol(
+        @Schema(description = "Stock symbol.", example = "AAPL") String symbol,
+
+        @Schema(description = "Overall popularity: the view score plus the number of favorites.", example = "42.5") double score,
+
+        @Schema(description = "Recent views, decayed so activity loses half its weight every half-life.", example = "30.5") double viewScore,
+
+        @Schema(description = "Number of users who favorited the symbol.", example = "12") long favorites) {
+}
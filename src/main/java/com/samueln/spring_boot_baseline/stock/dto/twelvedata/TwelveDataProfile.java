@@ -14,5 +14,8 @@ public record TwelveDataProfile(
         @JsonProperty("website") String website,
         @JsonProperty("country") String country,
         @JsonProperty("currency") String currency,
-        @JsonProperty("market_cap") String marketCap) {
+        @JsonProperty("market_cap") String marketCap,
+        @JsonProperty("code") Integer code,
+        @JsonProperty("message") String message,
+        @JsonProperty("status") String status) implements TwelveDataResponse {
 }
@@ -17,5 +17,15 @@ public record TwelveDataQuote(
         @JsonProperty("volume") String volume,
         @JsonProperty("previous_close") String previousClose,
         @JsonProperty("change") String change,
-        @JsonProperty("percent_change") String percentChange) {
+        @JsonProperty("percent_change") String percentChange,
+        @JsonProperty("code") Integer code,
+        @JsonProperty("message") String message,
+        @JsonProperty("status") String status) implements TwelveDataResponse {
+
+    /**
+     * Twelve Data reports unknown symbols as an error body rather than an HTTP status.
+     */
+    public boolean symbolNotFound() {
+        return isError() && code != null && code == 404;
+    }
 }
@@ -0,0 +1,18 @@
+package com.samueln.spring_boot_baseline.stock.dto.twelvedata;
+
+/**
+ * The fields of a Twelve Data error body. Errors, including running out of
+ * credits, may arrive with a 200 status, so every response type carries them.
+ */
+public interface TwelveDataResponse {
+
+    Integer code();
+
+    String message();
+
+    String status();
+
+    default boolean isError() {
+        return "error".equals(status());
+    }
+}
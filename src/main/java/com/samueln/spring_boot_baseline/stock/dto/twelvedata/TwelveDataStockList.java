@@ -0,0 +1,23 @@
+package com.samueln.spring_boot_baseline.stock.dto.twelvedata;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Reference list of stocks, as returned by the {@code /stocks} endpoint.
+ * {@code data} is absent when upstream answered with an error body.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TwelveDataStockList(
+        @JsonProperty("data") List<Stock> data,
+        @JsonProperty("status") String status) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Stock(
+            @JsonProperty("symbol") String symbol,
+            @JsonProperty("name") String name,
+            @JsonProperty("exchange") String exchange,
+            @JsonProperty("type") String type) {
+    }
+}
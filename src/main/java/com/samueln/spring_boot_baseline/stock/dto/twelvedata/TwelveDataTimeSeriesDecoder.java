@@ -0,0 +1,279 @@
+package com.samueln.spring_boot_baseline.stock.dto.twelvedata;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes Twelve Data {@code time_series} responses from the JSON token stream
+ * straight into {@link PriceSeries} columns.
+ * <p>
+ * Dates and the string-encoded numbers are parsed from the parser's character
+ * buffer, so no per-bar objects or strings are created. Fields other than the
+ * OHLCV values and the interval are skipped. Entries with an error status are left
+ * out of the result, as are bars without a usable date or close.
+ */
+public final class TwelveDataTimeSeriesDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Integers up to 2^53 and powers of ten up to 1e22 are exact doubles, so one division rounds correctly.
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final long INVALID_TIME = Long.MIN_VALUE;
+
+    private TwelveDataTimeSeriesDecoder() {
+    }
+
+    /**
+     * Decodes a single- or multi-symbol response. A single-symbol response is a bare
+     * series object and is keyed by the only requested symbol.
+     */
+    public static Map<String, PriceSeries> decode(InputStream body, List<String> symbols) throws IOException {
+        Map<String, PriceSeries> result = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return result;
+            }
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.FIELD_NAME && !isSeriesField(parser.currentName())) {
+                for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                    String symbol = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        PriceSeries series = readSeries(parser, parser.nextToken());
+                        if (series != null) {
+                            result.put(symbol, series);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (symbols.size() == 1) {
+                PriceSeries series = readSeries(parser, token);
+                if (series != null) {
+                    result.put(symbols.get(0), series);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSeriesField(String name) {
+        return switch (name) {
+            case "meta", "values", "status", "code", "message" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Reads the fields of a series object, starting at {@code token}, up to and
+     * including its closing brace. Returns {@code null} for error bodies.
+     */
+    private static PriceSeries readSeries(JsonParser parser, JsonToken token) throws IOException {
+        PriceSeries.Builder builder = PriceSeries.builder(DEFAULT_CAPACITY);
+        boolean error = false;
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "meta" -> readMeta(parser, value, builder);
+                case "values" -> readValues(parser, value, builder);
+                case "status" -> error = value == JsonToken.VALUE_STRING && "error".equals(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        return error ? null : builder.build();
+    }
+
+    private static void readMeta(JsonParser parser, JsonToken token, PriceSeries.Builder builder) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_STRING && field.equals("interval")) {
+                builder.interval(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readValues(JsonParser parser, JsonToken token, PriceSeries.Builder builder)
+            throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        for (token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == JsonToken.START_OBJECT) {
+                readBar(parser, builder);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readBar(JsonParser parser, PriceSeries.Builder builder) throws IOException {
+        long time = INVALID_TIME;
+        double open = Double.NaN;
+        double high = Double.NaN;
+        double low = Double.NaN;
+        double close = Double.NaN;
+        long volume = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "datetime" -> time = readTime(parser);
+                case "open" -> open = readDouble(parser);
+                case "high" -> high = readDouble(parser);
+                case "low" -> low = readDouble(parser);
+                case "close" -> close = readDouble(parser);
+                case "volume" -> {
+                    double parsed = readDouble(parser);
+                    volume = Double.isNaN(parsed) ? 0 : (long) parsed;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        if (time != INVALID_TIME && !Double.isNaN(close)) {
+            builder.add(time,
+                    Double.isNaN(open) ? close : open,
+                    Double.isNaN(high) ? close : high,
+                    Double.isNaN(low) ? close : low,
+                    close,
+                    volume);
+        }
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parseDecimal(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            default -> {
+                parser.skipChildren();
+                yield Double.NaN;
+            }
+        };
+    }
+
+    private static long readTime(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return INVALID_TIME;
+        }
+        return parseTime(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} with an optional {@code HH:mm[:ss]} part into epoch
+     * seconds, treating the local time as UTC.
+     */
+    static long parseTime(char[] chars, int offset, int length) {
+        if (length < 10 || chars[offset + 4] != '-' || chars[offset + 7] != '-') {
+            return INVALID_TIME;
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID_TIME;
+        }
+        long seconds = epochDay(year, month, day) * SECONDS_PER_DAY;
+        if (length >= 16) {
+            int hour = digits(chars, offset + 11, 2);
+            int minute = digits(chars, offset + 14, 2);
+            int second = length >= 19 ? digits(chars, offset + 17, 2) : 0;
+            if (hour < 0 || minute < 0 || second < 0) {
+                return INVALID_TIME;
+            }
+            seconds += hour * 3_600L + minute * 60L + second;
+        }
+        return seconds;
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 187.4400} without creating a string.
+     * Anything outside the exact fast path falls back to {@link Double#parseDouble}.
+     */
+    static double parseDecimal(char[] chars, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        boolean negative = index < end && chars[index] == '-';
+        if (negative || (index < end && chars[index] == '+')) {
+            index++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenDot = false;
+        for (; index < end; index++) {
+            char ch = chars[index];
+            if (ch >= '0' && ch <= '9') {
+                mantissa = mantissa * 10 + (ch - '0');
+                seenDigit = true;
+                if (seenDot) {
+                    scale++;
+                }
+                if (mantissa > MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+                    return parseSlowly(chars, offset, length);
+                }
+            } else if (ch == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return parseSlowly(chars, offset, length);
+            }
+        }
+        if (!seenDigit) {
+            return Double.NaN;
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlowly(char[] chars, int offset, int length) {
+        try {
+            return Double.parseDouble(new String(chars, offset, length));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char ch = chars[i];
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date, without allocating.
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
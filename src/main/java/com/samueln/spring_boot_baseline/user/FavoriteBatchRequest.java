@@ -0,0 +1,13 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteBatchRequest {
+    private List<String> symbols;
+}
@@ -0,0 +1,10 @@
+package com.samueln.spring_boot_baseline.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a batch favorites write.")
+public record FavoriteBatchResult(
+        @Schema(description = "Distinct symbols in the request.", example = "3") int requested,
+
+        @Schema(description = "Favorites actually added or removed; the rest were already in the requested state.", example = "2") int changed) {
+}
@@ -1,23 +1,11 @@
 package com.samueln.spring_boot_baseline.user;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class FavoriteStock {
-    private String symbol;
-    private LocalDateTime addedAt;
+@Schema(description = "A stock the user favorited.")
+public record FavoriteStock(
+        @Schema(description = "Stock symbol.", example = "AAPL") String symbol,
 
-    public static FavoriteStock fromEntity(FavoriteStockEntity entity) {
-        return FavoriteStock.builder()
-                .symbol(entity.getSymbol())
-                .addedAt(entity.getAddedAt())
-                .build();
-    }
+        @Schema(description = "Timestamp of when the stock was favorited.", example = "2024-01-01T12:00:00") LocalDateTime addedAt) {
 }
@@ -1,16 +1,24 @@
 package com.samueln.spring_boot_baseline.user;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface FavoriteStockRepository extends JpaRepository<FavoriteStockEntity, UUID> {
-    List<FavoriteStockEntity> findByUserId(UUID userId);
+public interface FavoriteStockRepository extends JpaRepository<FavoriteStockEntity, UUID>, FavoriteStockRepositoryCustom {
+    /**
+     * The user's favorites, projected straight into DTOs in one query that also
+     * tells an unknown user apart: it returns no rows for an unknown user and a
+     * single row with a null symbol for a user without favorites.
+     */
+    @Query("select new com.samueln.spring_boot_baseline.user.FavoriteStock(f.symbol, f.addedAt) "
+            + "from UserEntity u left join FavoriteStockEntity f on f.user = u "
+            + "where u.id = :userId order by f.addedAt, f.symbol")
+    List<FavoriteStock> findFavoritesOfUser(UUID userId);
 
-    Optional<FavoriteStockEntity> findByUserIdAndSymbol(UUID userId, String symbol);
-
-    void deleteByUserIdAndSymbol(UUID userId, String symbol);
+    @Query("select f.symbol as symbol, count(f) as favorites from FavoriteStockEntity f group by f.symbol order by count(f) desc")
+    List<SymbolFavoriteCount> findMostFavorited(Limit limit);
 }
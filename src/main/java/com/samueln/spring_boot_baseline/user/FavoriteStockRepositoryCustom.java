@@ -0,0 +1,25 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface FavoriteStockRepositoryCustom {
+
+    /**
+     * Favorites every symbol for the user in a single JDBC batch, skipping symbols
+     * already favorited.
+     *
+     * @return the symbols that were added
+     * @throws org.springframework.dao.DataIntegrityViolationException when the user
+     *         does not exist
+     */
+    List<String> addAll(UUID userId, List<String> symbols);
+
+    /**
+     * Removes every symbol from the user's favorites in a single JDBC batch,
+     * ignoring symbols that are not favorited.
+     *
+     * @return the symbols that were removed
+     */
+    List<String> removeAll(UUID userId, List<String> symbols);
+}
@@ -0,0 +1,78 @@
+package com.samueln.spring_boot_baseline.user;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class FavoriteStockRepositoryCustomImpl implements FavoriteStockRepositoryCustom {
+
+    // A concurrent add of the same pair is absorbed by the unique constraint instead of failing on it.
+    private static final String INSERT = """
+            INSERT INTO favorite_stock (id, user_id, symbol, added_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, symbol) DO NOTHING
+            """;
+
+    private static final String DELETE = """
+            DELETE FROM favorite_stock
+            WHERE user_id = ? AND symbol = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    FavoriteStockRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public List<String> addAll(UUID userId, List<String> symbols) {
+        LocalDateTime addedAt = LocalDateTime.now();
+        return changed(symbols, jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                statement.setObject(1, UuidV7.generate());
+                statement.setObject(2, userId);
+                statement.setString(3, symbols.get(index));
+                statement.setObject(4, addedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return symbols.size();
+            }
+        }));
+    }
+
+    @Override
+    @Transactional
+    public List<String> removeAll(UUID userId, List<String> symbols) {
+        return changed(symbols, jdbcTemplate.batchUpdate(DELETE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                statement.setObject(1, userId);
+                statement.setString(2, symbols.get(index));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return symbols.size();
+            }
+        }));
+    }
+
+    // Batched statements report one update count each, in order, unless the driver rewrites the batch.
+    private static List<String> changed(List<String> symbols, int[] updateCounts) {
+        return IntStream.range(0, symbols.size())
+                .filter(index -> updateCounts[index] > 0)
+                .mapToObj(symbols::get)
+                .toList();
+    }
+}
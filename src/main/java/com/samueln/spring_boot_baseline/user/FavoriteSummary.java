@@ -0,0 +1,31 @@
+package com.samueln.spring_boot_baseline.user;
+
+import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolSummary;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+
+@Schema(description = "A favorited stock together with its live summary.")
+public record FavoriteSummary(
+        @Schema(description = "Stock symbol.", example = "AAPL") String symbol,
+
+        @Schema(description = "Timestamp of when the stock was favorited.", example = "2024-01-01T12:00:00") LocalDateTime addedAt,
+
+        @Schema(description = "READY when the summary is included, PENDING when it was not ready within the time budget, ERROR when it could not be built.") SymbolSummary.Status status,
+
+        @Schema(description = "Live summary, present when the status is READY.") StockSummary summary,
+
+        @Schema(description = "Failure reason, present when the status is ERROR.") String error) {
+    public static FavoriteSummary of(FavoriteStock favorite, SymbolSummary summary) {
+        if (summary == null) {
+            return new FavoriteSummary(favorite.symbol(), favorite.addedAt(), SymbolSummary.Status.PENDING,
+                    null, null);
+        }
+        return new FavoriteSummary(
+                favorite.symbol(),
+                favorite.addedAt(),
+                summary.status(),
+                summary.summary(),
+                summary.error());
+    }
+}
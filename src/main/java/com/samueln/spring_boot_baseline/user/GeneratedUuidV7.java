@@ -0,0 +1,16 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates the annotated id with {@link UuidV7} when the entity is persisted.
+ */
+@IdGeneratorType(UuidV7.Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
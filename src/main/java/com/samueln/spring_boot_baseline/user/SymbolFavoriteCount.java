@@ -0,0 +1,10 @@
+package com.samueln.spring_boot_baseline.user;
+
+/**
+ * Projection of how many users favorited a symbol.
+ */
+public interface SymbolFavoriteCount {
+    String getSymbol();
+
+    long getFavorites();
+}
@@ -1,5 +1,6 @@
 package com.samueln.spring_boot_baseline.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -8,19 +9,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping(value = "/api/users", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -28,16 +37,52 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Get all users", description = "Returns a list of all registered users")
+    @Operation(summary = "Get users", description = "Returns every user ordered by id. With limit or after, returns one page of users instead (100 unless limit says otherwise); when more users follow, the Link header carries the URL of the next page (rel=\"next\"), which continues after the last id of this page.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Users returned successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
-            @ApiResponse(responseCode = "500", description = "Unexpected server error", content = @Content)
+            @ApiResponse(responseCode = "200", description = "Users returned successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = User.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content)
     })
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<User>> getUsers(
+            @Parameter(description = "Cursor: return users after this id.") @RequestParam(name = "after", required = false) UUID after,
+            @Parameter(description = "Maximum number of users to return (1 to 1000).") @RequestParam(name = "limit", required = false) Integer limit) {
+        // Unpaged unless the client asks for pages, so existing clients keep receiving every user.
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(userService.getAllUsers());
+        }
+        UserPage page = userService.getUsers(after, limit != null ? limit : DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.next())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.users());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all users", description = "Opt in with Accept: application/x-ndjson. Writes one JSON line per user, ordered by id, as rows are read from the database; the whole table is never held in memory.")
+    @ApiResponse(responseCode = "200", description = "Users streamed", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = User.class)))
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @Parameter(description = "Cursor: stream users after this id, to resume an interrupted stream.") @RequestParam(name = "after", required = false) UUID after) {
+        StreamingResponseBody body = outputStream -> userService.streamUsers(after, user -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(user));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{userId}/favorites")
@@ -52,32 +97,72 @@ public class UserController {
         return userService.getUserFavorites(userId);
     }
 
+    @GetMapping("/{userId}/favorites/summaries")
+    @Tag(name = "Favorites")
+    @Operation(summary = "Get user favorites with live summaries", description = "Returns the user's favorites together with their stock summaries in one payload. Summaries not ready within the time budget are returned as PENDING.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Favorite summaries returned successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = FavoriteSummary.class)))),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
+    })
+    public List<FavoriteSummary> getFavoriteSummaries(
+            @Parameter(description = "The UUID of the user.", required = true) @PathVariable("userId") UUID userId,
+            @Parameter(description = "Maximum time to wait for summaries, in milliseconds (capped at 5000).") @RequestParam(name = "budgetMs", defaultValue = "1500") long budgetMs) {
+        return userService.getFavoriteSummaries(userId, Duration.ofMillis(budgetMs));
+    }
+
     @PostMapping("/{userId}/favorites")
     @Tag(name = "Favorites")
-    @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "Add a favorite", description = "Adds a stock to the user's favorites list.")
+    @Operation(summary = "Add a favorite", description = "Adds a stock to the user's favorites list. Idempotent: adding a stock that is already favorited succeeds without changing anything.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Favorite added successfully", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Invalid input or stock already favorited", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Stock was already favorited", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
     })
-    public void addFavorite(
+    public ResponseEntity<Void> addFavorite(
             @Parameter(description = "The UUID of the user.", required = true) @PathVariable("userId") UUID userId,
             @RequestBody AddFavoriteRequest request) {
-        userService.addFavorite(userId, request.getSymbol());
+        boolean added = userService.addFavorite(userId, request.getSymbol());
+        return ResponseEntity.status(added ? HttpStatus.CREATED : HttpStatus.OK).build();
     }
 
     @DeleteMapping("/{userId}/favorites/{symbol}")
     @Tag(name = "Favorites")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    @Operation(summary = "Remove a favorite", description = "Removes a stock from the user's favorites list.")
+    @Operation(summary = "Remove a favorite", description = "Removes a stock from the user's favorites list. Idempotent: removing a stock that is not favorited succeeds without changing anything.")
     @ApiResponses({
-            @ApiResponse(responseCode = "204", description = "Favorite removed successfully", content = @Content),
-            @ApiResponse(responseCode = "404", description = "User or favorite not found", content = @Content)
+            @ApiResponse(responseCode = "204", description = "Favorite removed or not present", content = @Content)
     })
     public void removeFavorite(
             @Parameter(description = "The UUID of the user.", required = true) @PathVariable("userId") UUID userId,
             @Parameter(description = "The stock symbol to remove.", required = true) @PathVariable("symbol") String symbol) {
         userService.removeFavorite(userId, symbol);
     }
+
+    @PostMapping(value = "/{userId}/favorites:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Tag(name = "Favorites")
+    @Operation(summary = "Add favorites in bulk", description = "Adds up to 1000 stocks to the user's favorites list in one batch. Stocks already favorited are skipped.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Favorites added", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FavoriteBatchResult.class))),
+            @ApiResponse(responseCode = "400", description = "No symbols or too many symbols", content = @Content),
+            @ApiResponse(responseCode = "404", description = "User not found", content = @Content)
+    })
+    public FavoriteBatchResult addFavorites(
+            @Parameter(description = "The UUID of the user.", required = true) @PathVariable("userId") UUID userId,
+            @RequestBody FavoriteBatchRequest request) {
+        return userService.addFavorites(userId, request.getSymbols());
+    }
+
+    @DeleteMapping(value = "/{userId}/favorites:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Tag(name = "Favorites")
+    @Operation(summary = "Remove favorites in bulk", description = "Removes up to 1000 stocks from the user's favorites list in one batch. Stocks not favorited are ignored.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Favorites removed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FavoriteBatchResult.class))),
+            @ApiResponse(responseCode = "400", description = "No symbols or too many symbols", content = @Content)
+    })
+    public FavoriteBatchResult removeFavorites(
+            @Parameter(description = "The UUID of the user.", required = true) @PathVariable("userId") UUID userId,
+            @RequestBody FavoriteBatchRequest request) {
+        return userService.removeFavorites(userId, request.getSymbols());
+    }
 }
@@ -0,0 +1,11 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of users and the cursor to pass as {@code after} for the next page,
+ * {@code null} on the last page.
+ */
+public record UserPage(List<User> users, UUID next) {
+}
@@ -0,0 +1,21 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Returns at most {@code limit} users ordered by id, starting after
+     * {@code after} (or from the first user when {@code null}). Seeks on the primary
+     * key index, so every page costs the same however deep it is.
+     */
+    List<User> findPage(UUID after, int limit);
+
+    /**
+     * Hands every user after {@code after}, ordered by id, to {@code sink} as rows
+     * arrive from a server-side cursor, without materializing the result.
+     */
+    void streamAll(UUID after, Consumer<User> sink);
+}
@@ -0,0 +1,67 @@
+package com.samueln.spring_boot_baseline.user;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String SELECT = """
+            SELECT id, username, email, first_name, last_name, created_at, updated_at
+            FROM app_user
+            """;
+    private static final String FIRST_PAGE = SELECT + "ORDER BY id LIMIT ?";
+    private static final String NEXT_PAGE = SELECT + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ALL = SELECT + "ORDER BY id";
+    private static final String ALL_AFTER = SELECT + "WHERE id > ? ORDER BY id";
+    // Rows per round trip while streaming; only this many are held in memory at a time.
+    private static final int FETCH_SIZE = 500;
+
+    private static final RowMapper<User> USER = (resultSet, rowNum) -> new User(
+            resultSet.getObject("id", UUID.class),
+            resultSet.getString("username"),
+            resultSet.getString("email"),
+            resultSet.getString("first_name"),
+            resultSet.getString("last_name"),
+            resultSet.getObject("created_at", LocalDateTime.class),
+            resultSet.getObject("updated_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<User> findPage(UUID after, int limit) {
+        return after == null
+                ? jdbcTemplate.query(FIRST_PAGE, USER, limit)
+                : jdbcTemplate.query(NEXT_PAGE, USER, after, limit);
+    }
+
+    /**
+     * PostgreSQL only honours the fetch size inside a transaction; outside one it
+     * reads the whole result first.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(UUID after, Consumer<User> sink) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(after == null ? ALL : ALL_AFTER,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            if (after != null) {
+                statement.setObject(1, after);
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> sink.accept(USER.mapRow(resultSet, resultSet.getRow())));
+    }
+}
@@ -1,11 +1,24 @@
 package com.samueln.spring_boot_baseline.user;
 
+import com.samueln.spring_boot_baseline.stock.StockService;
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolSummary;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -13,48 +26,186 @@ import org.springframework.web.server.ResponseStatusException;
 @Transactional(readOnly = true)
 public class UserService {
 
+    private static final Duration MAX_SUMMARY_BUDGET = Duration.ofSeconds(5);
+    private static final int MAX_BATCH_SYMBOLS = 1_000;
+    private static final int MAX_PAGE_SIZE = 1_000;
+    // Width of favorite_stock.symbol.
+    private static final int MAX_SYMBOL_LENGTH = 255;
+    private static final String USER_FOREIGN_KEY = "fk_favorite_stock_user";
+
     private final UserRepository userRepository;
     private final FavoriteStockRepository favoriteStockRepository;
+    private final StockService stockService;
+    private final SymbolPopularity symbolPopularity;
 
+    /**
+     * Returns every user in id order, read through the streaming query.
+     */
     public List<User> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(User::fromEntity)
-                .toList();
+        List<User> users = new ArrayList<>();
+        userRepository.streamAll(null, users::add);
+        return users;
+    }
+
+    /**
+     * Returns the page of at most {@code limit} users after the {@code after}
+     * cursor, in id order. One extra row is read to tell whether another page
+     * follows.
+     */
+    public UserPage getUsers(UUID after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<User> users = userRepository.findPage(after, limit + 1);
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, limit);
+        return new UserPage(page, page.get(limit - 1).id());
+    }
+
+    /**
+     * Hands every user after the {@code after} cursor to {@code sink} in id order,
+     * streaming from the database, so memory use does not grow with the table.
+     */
+    public void streamUsers(UUID after, Consumer<User> sink) {
+        userRepository.streamAll(after, sink);
     }
 
+    /**
+     * Returns the user's favorites in the order they were added, reading them and
+     * checking that the user exists in a single query.
+     */
     public List<FavoriteStock> getUserFavorites(UUID userId) {
-        if (!userRepository.existsById(userId)) {
+        List<FavoriteStock> favorites = favoriteStockRepository.findFavoritesOfUser(userId);
+        if (favorites.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
-        return favoriteStockRepository.findByUserId(userId)
-                .stream()
-                .map(FavoriteStock::fromEntity)
+        return favorites.getFirst().symbol() == null ? List.of() : favorites;
+    }
+
+    /**
+     * Joins the user's favorites with their live summaries, built as one
+     * de-duplicated parallel batch. Runs outside a transaction so no connection is
+     * held while waiting on upstream calls.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<FavoriteSummary> getFavoriteSummaries(UUID userId, Duration budget) {
+        List<FavoriteStock> favorites = getUserFavorites(userId);
+        if (favorites.isEmpty()) {
+            return List.of();
+        }
+
+        Duration boundedBudget = budget.isNegative() ? Duration.ZERO
+                : budget.compareTo(MAX_SUMMARY_BUDGET) > 0 ? MAX_SUMMARY_BUDGET : budget;
+        Map<String, SymbolSummary> summaries = stockService.getStockSummaries(
+                favorites.stream().map(FavoriteStock::symbol).toList(), boundedBudget);
+
+        return favorites.stream()
+                .map(favorite -> FavoriteSummary.of(favorite,
+                        summaries.get(StockService.normalizeSymbol(favorite.symbol()))))
                 .toList();
     }
 
+    /**
+     * Adds the favorite in one statement. Adding a favorite that already exists,
+     * including concurrently, is a no-op.
+     *
+     * @return whether the favorite was added
+     */
     @Transactional
-    public void addFavorite(UUID userId, String symbol) {
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    public boolean addFavorite(UUID userId, String symbol) {
+        return addFavorites(userId, List.of(symbol)).changed() > 0;
+    }
 
-        if (favoriteStockRepository.findByUserIdAndSymbol(userId, symbol).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Stock already favorited");
+    /**
+     * Removes the favorite in one statement. Removing a favorite that does not
+     * exist is a no-op.
+     */
+    @Transactional
+    public void removeFavorite(UUID userId, String symbol) {
+        removeFavorites(userId, List.of(symbol));
+    }
+
+    @Transactional
+    public FavoriteBatchResult addFavorites(UUID userId, List<String> symbols) {
+        List<String> distinct = distinctSymbols(symbols);
+        for (String symbol : distinct) {
+            if (symbol.length() > MAX_SYMBOL_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Symbols are at most " + MAX_SYMBOL_LENGTH + " characters long");
+            }
+        }
+        List<String> added;
+        try {
+            added = favoriteStockRepository.addAll(userId, distinct);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, USER_FOREIGN_KEY)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+            }
+            throw e;
         }
+        afterCommit(() -> added.forEach(symbol -> symbolPopularity.recordFavorite(symbol, 1)));
+        return new FavoriteBatchResult(distinct.size(), added.size());
+    }
 
-        FavoriteStockEntity favorite = FavoriteStockEntity.builder()
-                .user(user)
-                .symbol(symbol)
-                .build();
+    @Transactional
+    public FavoriteBatchResult removeFavorites(UUID userId, List<String> symbols) {
+        List<String> distinct = distinctSymbols(symbols);
+        List<String> removed = favoriteStockRepository.removeAll(userId, distinct);
+        afterCommit(() -> removed.forEach(symbol -> symbolPopularity.recordFavorite(symbol, -1)));
+        return new FavoriteBatchResult(distinct.size(), removed.size());
+    }
 
-        favoriteStockRepository.save(favorite);
+    private static List<String> distinctSymbols(List<String> symbols) {
+        // Normalized like the stock API, so storage, de-duplication and popularity share one key.
+        List<String> distinct = symbols == null ? List.of() : symbols.stream()
+                .map(StockService::normalizeSymbol)
+                .filter(symbol -> !symbol.isEmpty())
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one symbol is required");
+        }
+        if (distinct.size() > MAX_BATCH_SYMBOLS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SYMBOLS + " symbols are allowed per request");
+        }
+        return distinct;
     }
 
-    @Transactional
-    public void removeFavorite(UUID userId, String symbol) {
-        FavoriteStockEntity favorite = favoriteStockRepository.findByUserIdAndSymbol(userId, symbol)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User or favorite not found"));
+    /**
+     * Runs {@code action} once the current transaction commits, so popularity only
+     * counts favorite changes that are visible to its reconciling query.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-        favoriteStockRepository.delete(favorite);
+    /**
+     * Whether the failure names {@code constraint}. The driver reports it in the
+     * message of the failed batch entry, which may be chained as the next exception.
+     */
+    private static boolean violates(Throwable failure, String constraint) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            for (Throwable next = cause; next != null;
+                    next = next instanceof SQLException sql ? sql.getNextException() : null) {
+                String message = next.getMessage();
+                if (message != null && message.toLowerCase(Locale.ROOT).contains(constraint)) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Time-ordered version 7 UUIDs (RFC 9562): a 48-bit Unix millisecond timestamp,
+ * a 12-bit counter and 62 random bits.
+ * <p>
+ * Random version 4 keys land anywhere in a B-tree index, so every insert touches
+ * a random leaf page and splits leave pages half full. Version 7 keys grow with
+ * time, so inserts append to the rightmost leaf the way a sequence does, while
+ * staying unguessable and safe to generate without the database.
+ * <p>
+ * Ids from this JVM are strictly increasing: within a millisecond the counter,
+ * seeded randomly, is incremented, and if it overflows or the clock steps back
+ * the timestamp is advanced past the last one issued.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Guarded by UuidV7.class.
+    private static long lastMillis;
+    private static int counter;
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        long millis = System.currentTimeMillis();
+        int sequence;
+        synchronized (UuidV7.class) {
+            if (millis > lastMillis) {
+                lastMillis = millis;
+                // Leave at least 2048 increments before the counter overflows.
+                counter = random.nextInt(1 << 11);
+            } else if (++counter > 0xFFF) {
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+        long mostSignificant = millis << 16 | 0x7000L | sequence;
+        long leastSignificant = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Hibernate identifier generator behind {@link GeneratedUuidV7}.
+     */
+    public static class Generator implements IdentifierGenerator {
+
+        @Override
+        public Object generate(SharedSessionContractImplementor session, Object object) {
+            return UuidV7.generate();
+        }
+    }
+}
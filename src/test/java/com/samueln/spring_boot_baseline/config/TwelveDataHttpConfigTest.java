@@ -0,0 +1,77 @@
+package com.samueln.spring_boot_baseline.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class TwelveDataHttpConfigTest {
+
+    private static final String QUOTE = "{\"symbol\":\"AAPL\",\"close\":\"150.25\"}";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private MockRestServiceServer server;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder()
+                .requestInterceptor(new TwelveDataHttpConfig.GzipInterceptor(inFlight));
+        server = MockRestServiceServer.bindTo(builder).build();
+        restClient = builder.build();
+    }
+
+    @Test
+    void shouldRequestGzipAndInflateCompressedResponses() throws IOException {
+        server.expect(requestTo("https://api.twelvedata.com/quote"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip(QUOTE), MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+        ResponseEntity<String> response = restClient.get()
+                .uri("https://api.twelvedata.com/quote")
+                .retrieve()
+                .toEntity(String.class);
+
+        assertThat(response.getBody()).isEqualTo(QUOTE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(inFlight).hasValue(0);
+        server.verify();
+    }
+
+    @Test
+    void shouldPassUncompressedResponsesThrough() {
+        server.expect(requestTo("https://api.twelvedata.com/quote"))
+                .andRespond(withSuccess(QUOTE, MediaType.APPLICATION_JSON));
+
+        String body = restClient.get()
+                .uri("https://api.twelvedata.com/quote")
+                .retrieve()
+                .body(String.class);
+
+        assertThat(body).isEqualTo(QUOTE);
+        assertThat(inFlight).hasValue(0);
+    }
+
+    private static byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,76 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void shouldOpenOnceTheFailureRateIsReached() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1));
+
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldOnlyCountTheMostRecentCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, Duration.ofMinutes(1));
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        // Three of the last four calls failed, although only half of all calls did.
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void shouldLetOneProbeThroughAfterTheOpenDuration() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.5, Duration.ofMillis(20));
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        Thread.sleep(30);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldReopenWhenTheProbeFails() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.5, Duration.ofMillis(20));
+        breaker.onFailure();
+        breaker.onFailure();
+        Thread.sleep(30);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedSummaryCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EncodedSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EncodedSummaryCache(objectMapper, 1_000, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldEncodeOnceAndServeCachedBytes() throws IOException {
+        AtomicInteger builds = new AtomicInteger();
+
+        EncodedSummary first = cache.get("AAPL", Timeline.ONE_YEAR, 300, () -> {
+            builds.incrementAndGet();
+            return summary("AAPL", false);
+        });
+        EncodedSummary second = cache.get("AAPL", Timeline.ONE_YEAR, 300, () -> {
+            builds.incrementAndGet();
+            return summary("AAPL", false);
+        });
+
+        EncodedSummary otherTimeline = cache.get("AAPL", Timeline.ONE_MONTH, 300, () -> {
+            builds.incrementAndGet();
+            return summary("AAPL", false);
+        });
+
+        assertThat(builds).hasValue(2);
+        assertThat(second).isSameAs(first);
+        assertThat(otherTimeline).isNotSameAs(first);
+        assertThat(objectMapper.readValue(first.json(), StockSummary.class)).isEqualTo(summary("AAPL", false));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(first.json());
+        }
+        assertThat(first.etag()).startsWith("\"").endsWith("\"").isNotEqualTo(first.gzipEtag());
+    }
+
+    @Test
+    void shouldKeepEtagForUnchangedContentAndNotCachePartialSummaries() {
+        AtomicInteger builds = new AtomicInteger();
+
+        EncodedSummary first = cache.get("MSFT", Timeline.ONE_YEAR, 300, () -> {
+            builds.incrementAndGet();
+            return summary("MSFT", true);
+        });
+        EncodedSummary second = cache.get("MSFT", Timeline.ONE_YEAR, 300, () -> {
+            builds.incrementAndGet();
+            return summary("MSFT", true);
+        });
+
+        assertThat(builds).hasValue(2);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.etag()).isEqualTo(first.etag());
+    }
+
+    private static StockSummary summary(String symbol, boolean partial) {
+        return StockSummary.builder()
+                .symbol(symbol)
+                .companyName("Company")
+                .exchange("NASDAQ")
+                .sector("Technology")
+                .timeline("1Y")
+                .price(150.25)
+                .description("")
+                .priceSeries(PriceSeries.builder(1)
+                        .interval("1month")
+                        .add(1_704_067_200L, 138.0, 142.0, 137.5, 140.0, 1_000)
+                        .build())
+                .partial(partial)
+                .build();
+    }
+}
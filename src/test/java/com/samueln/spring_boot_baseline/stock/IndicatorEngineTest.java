@@ -0,0 +1,104 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.Indicators;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndicatorEngineTest {
+
+    private static final long DAY = 86_400;
+
+    @Test
+    void shouldMatchNaiveComputationOverDailyHighsAndLows() {
+        PriceSeries series = randomWalk(600, 42);
+
+        Indicators indicators = new IndicatorEngine().update(series);
+
+        int last = series.size() - 1;
+        long windowStart = series.time(last) - 52 * 7 * DAY;
+        double high = IntStream.range(0, series.size()).filter(i -> series.time(i) > windowStart)
+                .mapToDouble(series::high).max().orElseThrow();
+        double low = IntStream.range(0, series.size()).filter(i -> series.time(i) > windowStart)
+                .mapToDouble(series::low).min().orElseThrow();
+        double sma50 = IntStream.rangeClosed(last - 49, last).mapToDouble(series::close).average().orElseThrow();
+        double sma200 = IntStream.rangeClosed(last - 199, last).mapToDouble(series::close).average().orElseThrow();
+
+        assertThat(indicators.week52High()).isEqualTo(high);
+        assertThat(indicators.week52Low()).isEqualTo(low);
+        assertThat(indicators.sma50()).isCloseTo(sma50, within(1e-9));
+        assertThat(indicators.sma200()).isCloseTo(sma200, within(1e-9));
+        assertThat(indicators.rsi14()).isBetween(0.0, 100.0);
+        assertThat(indicators.volatility20()).isPositive();
+        assertThat(indicators.vwap20()).isBetween(low, high);
+    }
+
+    @Test
+    void shouldGiveSameResultWhenFedIncrementally() {
+        PriceSeries series = randomWalk(400, 7);
+        IndicatorEngine incremental = new IndicatorEngine();
+
+        Indicators last = null;
+        for (int size = 1; size <= series.size(); size += 37) {
+            last = incremental.update(series.slice(0, size));
+        }
+        last = incremental.update(series);
+
+        Indicators full = new IndicatorEngine().update(series);
+        assertThat(last.week52High()).isEqualTo(full.week52High());
+        assertThat(last.week52Low()).isEqualTo(full.week52Low());
+        assertThat(last.sma50()).isCloseTo(full.sma50(), within(1e-9));
+        assertThat(last.ema20()).isCloseTo(full.ema20(), within(1e-9));
+        assertThat(last.rsi14()).isCloseTo(full.rsi14(), within(1e-9));
+        assertThat(last.volatility20()).isCloseTo(full.volatility20(), within(1e-9));
+        assertThat(last.vwap20()).isCloseTo(full.vwap20(), within(1e-9));
+    }
+
+    @Test
+    void shouldFoldInFormingBarWithoutCommittingIt() {
+        PriceSeries series = randomWalk(300, 3);
+        IndicatorEngine engine = new IndicatorEngine();
+        engine.update(series);
+
+        PriceSeries.Builder revised = PriceSeries.builder(series.size()).interval("1day");
+        for (int i = 0; i < series.size() - 1; i++) {
+            revised.add(series.time(i), series.open(i), series.high(i), series.low(i), series.close(i),
+                    series.volume(i));
+        }
+        int last = series.size() - 1;
+        revised.add(series.time(last), series.open(last), 10_000, series.low(last), 9_000, series.volume(last));
+
+        assertThat(engine.update(revised.build()).week52High()).isEqualTo(10_000);
+        assertThat(engine.update(series)).isEqualTo(new IndicatorEngine().update(series));
+    }
+
+    @Test
+    void shouldLeaveIndicatorsWithoutEnoughBarsEmpty() {
+        Indicators indicators = new IndicatorEngine().update(randomWalk(10, 1));
+
+        assertThat(indicators.week52High()).isNotNull();
+        assertThat(indicators.sma50()).isNull();
+        assertThat(indicators.ema20()).isNull();
+        assertThat(indicators.rsi14()).isNull();
+        assertThat(indicators.volatility20()).isNull();
+    }
+
+    private static PriceSeries randomWalk(int bars, long seed) {
+        Random random = new Random(seed);
+        PriceSeries.Builder builder = PriceSeries.builder(bars).interval("1day");
+        double close = 100;
+        for (int i = 0; i < bars; i++) {
+            double open = close;
+            close = Math.max(1, close * (1 + random.nextGaussian() * 0.02));
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            builder.add(i * DAY, open, high, low, close, 1_000 + random.nextInt(10_000));
+        }
+        return builder.build();
+    }
+}
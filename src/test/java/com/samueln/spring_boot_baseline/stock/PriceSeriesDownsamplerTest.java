@@ -0,0 +1,56 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceSeriesDownsamplerTest {
+
+    private static final long DAY = 86_400;
+
+    @Test
+    void shouldKeepEndpointsAndExtremesWithinPointBudget() {
+        PriceSeries.Builder builder = PriceSeries.builder(1_000).interval("1day");
+        for (int i = 0; i < 1_000; i++) {
+            double close = i == 500 ? 500 : i == 750 ? 1 : 100 + Math.sin(i / 10.0);
+            builder.add(i * DAY, close, close, close, close, 1_000);
+        }
+        PriceSeries series = builder.build();
+
+        PriceSeries reduced = PriceSeriesDownsampler.lttb(series, 100);
+
+        assertThat(reduced.size()).isEqualTo(100);
+        assertThat(reduced.interval()).isEqualTo("1day");
+        assertThat(reduced.time(0)).isEqualTo(series.time(0));
+        assertThat(reduced.time(99)).isEqualTo(series.time(999));
+        assertThat(IntStream.range(0, reduced.size()).mapToDouble(reduced::close)).contains(500.0, 1.0);
+        assertThat(IntStream.range(1, reduced.size()).allMatch(i -> reduced.time(i) > reduced.time(i - 1))).isTrue();
+    }
+
+    @Test
+    void shouldReturnSeriesUnchangedWhenWithinBudget() {
+        PriceSeries series = PriceSeries.builder(2)
+                .add(0, 1, 1, 1, 1, 1)
+                .add(DAY, 2, 2, 2, 2, 2)
+                .build();
+
+        assertThat(PriceSeriesDownsampler.lttb(series, 300)).isSameAs(series);
+    }
+
+    @Test
+    void shouldCutTimelineWindowsFromNewestBar() {
+        PriceSeries.Builder builder = PriceSeries.builder(800).interval("1day");
+        for (int i = 0; i < 800; i++) {
+            builder.add(i * DAY, i, i, i, i, 1);
+        }
+        PriceSeries series = builder.build();
+
+        assertThat(Timeline.ONE_YEAR.window(series).size()).isBetween(365, 367);
+        assertThat(Timeline.MAX.window(series)).isSameAs(series);
+        assertThat(Timeline.ONE_DAY.window(series).size()).isEqualTo(1);
+        assertThat(Timeline.parse("1y")).isEqualTo(Timeline.ONE_YEAR);
+    }
+}
@@ -0,0 +1,192 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.QuoteTick;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuoteStreamHubTest {
+
+    private StockService stockService;
+    private StockDataCache stockDataCache;
+    private SymbolPopularity symbolPopularity;
+    private QuoteStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        stockService = mock(StockService.class);
+        stockDataCache = mock(StockDataCache.class);
+        symbolPopularity = mock(SymbolPopularity.class);
+        when(stockDataCache.quoteExpiresWithin(anyString(), any())).thenReturn(true);
+        hub = hub(800);
+    }
+
+    private QuoteStreamHub hub(int creditsPerMinute) {
+        return new QuoteStreamHub(stockService, stockDataCache, symbolPopularity, Duration.ofSeconds(5),
+                creditsPerMinute, 0.25, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldPollEachSymbolOnceRegardlessOfSubscriberCount() {
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 150.25)));
+
+        hub.subscribe(List.of("AAPL", "MSFT"));
+        hub.subscribe(List.of("AAPL"));
+        hub.subscribe(List.of("MSFT"));
+        hub.poll();
+
+        assertThat(hub.activeSymbols()).isEqualTo(2);
+        verify(stockService, times(1)).latestQuotes(any());
+    }
+
+    @Test
+    void shouldNotPollWithoutSubscribers() {
+        hub.poll();
+
+        assertThat(hub.activeSymbols()).isZero();
+        verify(stockService, never()).latestQuotes(any());
+    }
+
+    @Test
+    void shouldSpendOnlyTheStreamShareOfCredits() {
+        // 8 credits a minute with a quarter share: 2 credits up front, then one every 30 seconds.
+        QuoteStreamHub hub = hub(8);
+        hub.subscribe(List.of("AAPL", "MSFT", "AMZN"));
+
+        // Forty seconds of polls: the first spends the 2 credits, a third one has accrued by the end.
+        for (int i = 0; i < 8; i++) {
+            hub.poll();
+        }
+
+        ArgumentCaptor<List<String>> polled = ArgumentCaptor.captor();
+        verify(stockService, times(2)).latestQuotes(polled.capture());
+        assertThat(polled.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(polled.getAllValues()).flatExtracting(symbols -> symbols)
+                .containsExactlyInAnyOrder("AAPL", "MSFT", "AMZN");
+    }
+
+    @Test
+    void shouldPollCachedQuotesWithoutCredits() {
+        when(stockDataCache.quoteExpiresWithin("AAPL", Duration.ZERO)).thenReturn(false);
+        QuoteStreamHub hub = hub(0);
+        hub.subscribe(List.of("AAPL", "MSFT"));
+
+        hub.poll();
+
+        verify(stockService).latestQuotes(List.of("AAPL"));
+    }
+
+    @Test
+    void shouldCountViewsOnlyOnceSymbolsResolve() {
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 150.0)));
+        hub.subscribe(List.of("AAPL", "NOPE"));
+        hub.subscribe(List.of("AAPL"));
+
+        hub.poll();
+        hub.subscribe(List.of("AAPL", "NOPE"));
+
+        verify(symbolPopularity, times(3)).recordView("AAPL");
+        verify(symbolPopularity, never()).recordView("NOPE");
+    }
+
+    @Test
+    void shouldReplacePendingTickWithNewerOne() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.subscribe(List.of("AAPL"), emitter);
+
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 150.0)));
+        hub.poll();
+        // The first send blocks, so the next ticks queue up behind it.
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 151.0)));
+        hub.poll();
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 152.0)));
+        hub.poll();
+        emitter.release.countDown();
+
+        awaitCondition(() -> emitter.sent.size() == 2);
+        assertThat(emitter.sent).extracting(QuoteTick::price).containsExactly(150.0, 152.0);
+    }
+
+    @Test
+    void shouldDropFeedWhenItsLastSubscriberLeaves() throws InterruptedException {
+        hub.subscribe(List.of("AAPL", "MSFT"), new FailingEmitter());
+        hub.subscribe(List.of("MSFT"));
+        when(stockService.latestQuotes(any())).thenReturn(Map.of("AAPL", tick("AAPL", 150.0)));
+
+        hub.poll();
+
+        awaitCondition(() -> hub.activeSymbols() == 1);
+        hub.poll();
+        verify(stockService).latestQuotes(List.of("MSFT"));
+    }
+
+    private static QuoteTick tick(String symbol, double price) {
+        return new QuoteTick(symbol, "2025-01-02", price, 1.5, 1.0, 1_000);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 5 seconds").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Records the ticks sent, holding the first send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<QuoteTick> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof QuoteTick tick) {
+                    sent.add(tick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fails every send, as when the client has disconnected.
+     */
+    private static final class FailingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
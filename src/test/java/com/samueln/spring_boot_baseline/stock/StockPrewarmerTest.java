@@ -0,0 +1,75 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity.Ranking;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockPrewarmerTest {
+
+    private StockService stockService;
+    private StockDataCache stockDataCache;
+    private SymbolPopularity symbolPopularity;
+
+    @BeforeEach
+    void setUp() {
+        stockService = mock(StockService.class);
+        stockDataCache = mock(StockDataCache.class);
+        symbolPopularity = mock(SymbolPopularity.class);
+        when(symbolPopularity.trending(eq(Ranking.POPULAR), anyInt()))
+                .thenReturn(List.of(new TrendingSymbol("AAPL", 1, 1, 0)));
+    }
+
+    private StockPrewarmer prewarmer(int creditsPerMinute) {
+        return new StockPrewarmer(stockService, stockDataCache, symbolPopularity, Duration.ofSeconds(5),
+                creditsPerMinute, 0.5, 50);
+    }
+
+    @Test
+    void shouldNotLoadSummariesCostingMoreThanTheShare() {
+        StockPrewarmer prewarmer = prewarmer(8);
+
+        // A minute and more of ticks: the share would have accrued past a summary's cost.
+        for (int i = 0; i < 30; i++) {
+            prewarmer.prewarm();
+        }
+
+        verify(stockService, never()).getStockSummaries(anyList(), any(), any());
+    }
+
+    @Test
+    void shouldLoadColdSymbolsOnceTheShareAccrued() {
+        StockPrewarmer prewarmer = prewarmer(800);
+
+        prewarmer.prewarm();
+
+        verify(stockService).getStockSummaries(List.of("AAPL"), Duration.ofSeconds(5), Priority.BACKGROUND);
+    }
+
+    @Test
+    void shouldRefreshQuotesOfWarmSymbols() {
+        when(stockDataCache.isWarm("AAPL")).thenReturn(true);
+        when(stockDataCache.quoteExpiresWithin(eq("AAPL"), any())).thenReturn(true);
+        StockPrewarmer prewarmer = prewarmer(8);
+
+        // A quote costs one credit; the share accrues a third of one per tick.
+        for (int i = 0; i < 4; i++) {
+            prewarmer.prewarm();
+        }
+
+        verify(stockService).refreshQuotes(List.of("AAPL"));
+    }
+}
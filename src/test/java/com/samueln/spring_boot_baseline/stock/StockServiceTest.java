@@ -1,26 +1,74 @@
 package com.samueln.spring_boot_baseline.stock;
 
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import com.samueln.spring_boot_baseline.stock.dto.QuoteTick;
 import com.samueln.spring_boot_baseline.stock.dto.StockSummary;
+import com.samueln.spring_boot_baseline.stock.dto.SymbolSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class StockServiceTest {
 
     private StockService stockService;
     private MockRestServiceServer server;
+    private PriceBarRepository priceBarRepository;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         RestClient.Builder builder = RestClient.builder();
-        server = MockRestServiceServer.bindTo(builder).build();
-        stockService = new StockService(builder, "test-key", "https://api.twelvedata.com");
+        // Upstream calls are fanned out concurrently, so their arrival order is not fixed.
+        server = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+        priceBarRepository = mock(PriceBarRepository.class);
+        stockService = stockService(builder.build(), Duration.ofSeconds(5), Duration.ofDays(1), Duration.ofHours(1));
+    }
+
+    private StockService stockService(RestClient restClient, Duration quoteTtl, Duration profileTtl,
+            Duration historyTtl) {
+        return stockService(restClient, quoteTtl, profileTtl, historyTtl,
+                new UpstreamLimiter(1_000, 16, 64, Duration.ofSeconds(2), Duration.ofSeconds(2)), Duration.ofSeconds(2));
+    }
+
+    private StockService stockService(RestClient restClient, Duration quoteTtl, Duration profileTtl,
+            Duration historyTtl, UpstreamLimiter limiter, Duration callTimeout) {
+        StockDataCache cache = new StockDataCache(1_000, 100_000, quoteTtl, profileTtl, historyTtl,
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofHours(1));
+        UpstreamCircuitBreakers circuitBreakers = new UpstreamCircuitBreakers(20, 10, 0.5, Duration.ofSeconds(30),
+                meterRegistry);
+        TwelveDataClient client = new TwelveDataClient(restClient, limiter, circuitBreakers, "test-key",
+                "https://api.twelvedata.com", false, Duration.ofMillis(100), meterRegistry);
+        PriceHistoryService priceHistoryService = new PriceHistoryService(priceBarRepository, client);
+        return new StockService(client, priceHistoryService, cache, limiter, callTimeout, Duration.ofSeconds(3), 100,
+                meterRegistry);
     }
 
     @Test
@@ -62,7 +110,7 @@ class StockServiceTest {
                 {
                   "meta": {
                     "symbol": "AAPL",
-                    "interval": "1month",
+                    "interval": "1day",
                     "currency": "USD",
                     "exchange_timezone": "America/New_York",
                     "exchange": "NASDAQ",
@@ -94,7 +142,7 @@ class StockServiceTest {
         server.expect(requestTo("https://api.twelvedata.com/profile?symbol=AAPL&apikey=test-key"))
                 .andRespond(withSuccess(profileJson, MediaType.APPLICATION_JSON));
         server.expect(requestTo(
-                "https://api.twelvedata.com/time_series?symbol=AAPL&interval=1month&outputsize=15&apikey=test-key"))
+                "https://api.twelvedata.com/time_series?symbol=AAPL&interval=1day&outputsize=5000&apikey=test-key"))
                 .andRespond(withSuccess(timeSeriesJson, MediaType.APPLICATION_JSON));
 
         StockSummary summary = stockService.getStockSummary("AAPL");
@@ -103,9 +151,358 @@ class StockServiceTest {
         assertThat(summary.companyName()).isEqualTo("Apple Inc");
         assertThat(summary.price()).isEqualTo(168.22000);
         assertThat(summary.marketCap()).isEqualTo(2_500_000_000_000d);
-        assertThat(summary.priceSeries()).hasSize(2);
-        assertThat(summary.week52High()).isEqualTo(168.22000);
-        assertThat(summary.week52Low()).isEqualTo(154.0);
+        assertThat(summary.priceSeries().size()).isEqualTo(2);
+        assertThat(summary.week52High()).isEqualTo(168.96000);
+        assertThat(summary.week52Low()).isEqualTo(149.0);
         assertThat(summary.yearStartPrice()).isEqualTo(154.0);
+        assertThat(summary.partial()).isFalse();
+        assertThat(meterRegistry.get("twelvedata.requests").tag("endpoint", "time_series").tag("status", "200")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stock.summary.build").tag("outcome", "complete").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnPartialSummaryWhenProfileFails() {
+        String quoteResponse = """
+                {
+                  "symbol": "MSFT",
+                  "name": "Microsoft Corp",
+                  "exchange": "NASDAQ",
+                  "close": "330.50000",
+                  "change": "2.10000",
+                  "percent_change": "0.64000"
+                }
+                """;
+
+        String timeSeriesJson = """
+                {
+                  "values": [
+                    { "datetime": "2023-10-27", "close": "330.5" }
+                  ]
+                }
+                """;
+
+        server.expect(requestTo("https://api.twelvedata.com/quote?symbol=MSFT&apikey=test-key"))
+                .andRespond(withSuccess(quoteResponse, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.twelvedata.com/profile?symbol=MSFT&apikey=test-key"))
+                .andRespond(withServerError());
+        server.expect(requestTo(
+                "https://api.twelvedata.com/time_series?symbol=MSFT&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess(timeSeriesJson, MediaType.APPLICATION_JSON));
+
+        StockSummary summary = stockService.getStockSummary("msft");
+
+        assertThat(summary.partial()).isTrue();
+        assertThat(summary.companyName()).isEqualTo("Microsoft Corp");
+        assertThat(summary.sector()).isEqualTo("N/A");
+        assertThat(summary.price()).isEqualTo(330.5);
+        assertThat(summary.priceSeries().size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheProfileErrorBodies() {
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/quote?symbol=ORCL&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "ORCL", "name": "Oracle Corp", "close": "120.0" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/profile?symbol=ORCL&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "code": 429, "message": "You have run out of API credits", "status": "error" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/profile?symbol=ORCL&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "ORCL", "name": "Oracle Corporation", "sector": "Technology" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=ORCL&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "values": [ { "datetime": "2023-10-27", "close": "120.0" } ] }
+                        """, MediaType.APPLICATION_JSON));
+
+        StockSummary throttled = stockService.getStockSummary("ORCL");
+        StockSummary recovered = stockService.getStockSummary("ORCL");
+
+        assertThat(throttled.partial()).isTrue();
+        assertThat(throttled.companyName()).isEqualTo("Oracle Corp");
+        assertThat(recovered.partial()).isFalse();
+        assertThat(recovered.sector()).isEqualTo("Technology");
+        assertThat(meterRegistry.get("twelvedata.requests").tag("endpoint", "profile").tag("outcome", "THROTTLED")
+                .timer().count()).isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    void shouldServeLastGoodSummaryAsStaleWhenUpstreamFails() {
+        RestClient.Builder builder = RestClient.builder();
+        MockRestServiceServer upstream = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+        // Nothing is cached between calls, so the second summary needs upstream again.
+        StockService service = stockService(builder.build(), Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        upstream.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/quote?symbol=AMZN&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "AMZN", "name": "Amazon.com Inc", "close": "180.0" }
+                        """, MediaType.APPLICATION_JSON));
+        upstream.expect(ExpectedCount.manyTimes(),
+                requestTo("https://api.twelvedata.com/quote?symbol=AMZN&apikey=test-key"))
+                .andRespond(withServerError());
+        upstream.expect(ExpectedCount.manyTimes(),
+                requestTo("https://api.twelvedata.com/profile?symbol=AMZN&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "AMZN", "name": "Amazon.com Inc" }
+                        """, MediaType.APPLICATION_JSON));
+        upstream.expect(ExpectedCount.manyTimes(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=AMZN&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "values": [ { "datetime": "2023-10-27", "close": "180.0" } ] }
+                        """, MediaType.APPLICATION_JSON));
+
+        StockSummary fresh = service.getStockSummary("AMZN");
+        StockSummary stale = service.getStockSummary("AMZN");
+
+        assertThat(fresh.stale()).isFalse();
+        assertThat(stale.stale()).isTrue();
+        assertThat(stale.price()).isEqualTo(180.0);
+        assertThat(stale.toBuilder().stale(false).build()).isEqualTo(fresh);
+        assertThat(meterRegistry.get("stock.summary.build").tag("outcome", "stale").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotServeStaleSummaryWithoutAPreviousOne() {
+        server.expect(requestTo("https://api.twelvedata.com/quote?symbol=NFLX&apikey=test-key"))
+                .andRespond(withServerError());
+        server.expect(ExpectedCount.between(0, 1),
+                requestTo("https://api.twelvedata.com/profile?symbol=NFLX&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=NFLX&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> stockService.getStockSummary("NFLX"))
+                .isInstanceOf(RuntimeException.class)
+                .isNotInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void shouldNotCacheMissingHistoryAsEmpty() {
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/quote?symbol=UBER&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "UBER", "name": "Uber Technologies Inc", "close": "70.0" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/profile?symbol=UBER&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "UBER", "name": "Uber Technologies Inc" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=UBER&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "code": 500, "message": "internal error", "status": "error" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=UBER&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "values": [ { "datetime": "2023-10-27", "close": "70.0" } ] }
+                        """, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> stockService.getStockSummary("UBER"))
+                .isNotInstanceOf(ResponseStatusException.class);
+        StockSummary summary = stockService.getStockSummary("UBER");
+
+        assertThat(summary.priceSeries().size()).isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    void shouldCountMalformedBodiesApartFromTimeouts() {
+        server.expect(requestTo("https://api.twelvedata.com/quote?symbol=SHOP&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "SHOP", "name": "Shopify Inc", "close": "
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1),
+                requestTo("https://api.twelvedata.com/profile?symbol=SHOP&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=SHOP&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "values": [ { "datetime": "2023-10-27", "close":
+                        """, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> stockService.getStockSummary("SHOP"))
+                .isNotInstanceOf(ResponseStatusException.class);
+
+        assertThat(meterRegistry.get("twelvedata.requests").tag("endpoint", "quote").tag("outcome", "FAILED")
+                .tag("status", "MALFORMED_BODY").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("twelvedata.requests").tag("outcome", "TIMED_OUT").timers()).isEmpty();
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromCache() {
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/quote?symbol=IBM&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "IBM", "name": "IBM", "close": "140.0" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/profile?symbol=IBM&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "IBM", "name": "International Business Machines" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=IBM&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "values": [ { "datetime": "2023-10-27", "close": "140.0" } ] }
+                        """, MediaType.APPLICATION_JSON));
+
+        StockSummary first = stockService.getStockSummary("IBM");
+        StockSummary second = stockService.getStockSummary("ibm");
+
+        assertThat(second).isEqualTo(first);
+        server.verify();
+    }
+
+    @Test
+    void shouldCacheUnknownSymbols() {
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/quote?symbol=NOPE&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "code": 404, "message": "symbol not found", "status": "error" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1),
+                requestTo("https://api.twelvedata.com/profile?symbol=NOPE&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=NOPE&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> stockService.getStockSummary("NOPE"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> stockService.getStockSummary("NOPE"))
+                .isInstanceOf(ResponseStatusException.class);
+        server.verify();
+    }
+
+    @Test
+    void shouldStreamSummariesUsingMultiSymbolRequests() throws InterruptedException {
+        server.expect(ExpectedCount.once(),
+                requestTo("https://api.twelvedata.com/quote?symbol=AAPL,NOPE&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        {
+                          "AAPL": { "symbol": "AAPL", "name": "Apple Inc", "close": "170.0" },
+                          "NOPE": { "code": 404, "message": "symbol not found", "status": "error" }
+                        }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(
+                "https://api.twelvedata.com/time_series?symbol=AAPL,NOPE&interval=1day&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        {
+                          "AAPL": { "values": [ { "datetime": "2023-10-27", "close": "170.0" } ] },
+                          "NOPE": { "code": 404, "message": "symbol not found", "status": "error" }
+                        }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("https://api.twelvedata.com/profile?symbol=AAPL&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "AAPL", "name": "Apple Inc", "sector": "Technology" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.between(0, 1),
+                requestTo("https://api.twelvedata.com/profile?symbol=NOPE&apikey=test-key"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        List<SymbolSummary> results = new ArrayList<>();
+        stockService.streamStockSummaries(stockService.normalizeSymbols(List.of("aapl", "NOPE", "AAPL")),
+                results::add);
+
+        assertThat(results).hasSize(2);
+        assertThat(results).filteredOn(result -> result.symbol().equals("AAPL")).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.error()).isNull();
+                    assertThat(result.summary().price()).isEqualTo(170.0);
+                    assertThat(result.summary().sector()).isEqualTo("Technology");
+                });
+        assertThat(results).filteredOn(result -> result.symbol().equals("NOPE")).singleElement()
+                .satisfies(result -> {
+                    assertThat(result.summary()).isNull();
+                    assertThat(result.error()).isEqualTo("Unknown symbol: NOPE");
+                });
+        server.verify();
+    }
+
+    @Test
+    void shouldRejectSymbolsLongerThanStored() {
+        assertThatThrownBy(() -> stockService.normalizeSymbols(List.of("AAPL", "X".repeat(33))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(stockService.normalizeSymbols(List.of("X".repeat(32)))).containsExactly("X".repeat(32));
+        assertThatThrownBy(() -> stockService.getStockSummary("X".repeat(33)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> stockService.getPriceSeries("X".repeat(33), Timeline.ONE_YEAR, 300))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void shouldLetBackgroundLoadsQueueLongerThanTheCallTimeout() {
+        RestClient.Builder builder = RestClient.builder();
+        MockRestServiceServer upstream = MockRestServiceServer.bindTo(builder).build();
+        // A credit every 2.5 seconds, all spent: the next one is further away than the 2s call timeout.
+        UpstreamLimiter limiter = new UpstreamLimiter(24, 4, 4, Duration.ofMillis(100), Duration.ofSeconds(30));
+        limiter.acquire(Priority.BACKGROUND, 24).release(UpstreamLimiter.Outcome.SUCCESS);
+        StockService service = stockService(builder.build(), Duration.ofSeconds(5), Duration.ofDays(1),
+                Duration.ofHours(1), limiter, Duration.ofSeconds(2));
+        upstream.expect(requestTo("https://api.twelvedata.com/quote?symbol=AAPL&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "AAPL", "name": "Apple Inc", "close": "170.0" }
+                        """, MediaType.APPLICATION_JSON));
+
+        long start = System.nanoTime();
+        Map<String, QuoteTick> ticks = service.latestQuotes(List.of("AAPL"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofSeconds(2));
+        assertThat(ticks.get("AAPL").price()).isEqualTo(170.0);
+        upstream.verify();
+    }
+
+    @Test
+    void shouldOnlyFetchBarsAfterStoredHistory() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        LocalDate twoDaysAgo = today.minusDays(2);
+        when(priceBarRepository.findSince(anyCollection(), eq("1day"), any())).thenReturn(List.of(
+                storedBar("TSLA", twoDaysAgo, 100),
+                storedBar("TSLA", yesterday, 110)));
+
+        server.expect(requestTo("https://api.twelvedata.com/quote?symbol=TSLA&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "TSLA", "name": "Tesla Inc", "close": "120.0" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.twelvedata.com/profile?symbol=TSLA&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        { "symbol": "TSLA", "name": "Tesla Inc" }
+                        """, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://api.twelvedata.com/time_series?symbol=TSLA&interval=1day&start_date="
+                + yesterday + "&outputsize=5000&apikey=test-key"))
+                .andRespond(withSuccess("""
+                        {
+                          "values": [
+                            { "datetime": "%s", "close": "120.0" },
+                            { "datetime": "%s", "close": "112.0" }
+                          ]
+                        }
+                        """.formatted(today, yesterday), MediaType.APPLICATION_JSON));
+
+        StockSummary summary = stockService.getStockSummary("TSLA");
+
+        PriceSeries series = summary.priceSeries();
+        assertThat(IntStream.range(0, series.size()).mapToDouble(series::close))
+                .containsExactly(100.0, 112.0, 120.0);
+        verify(priceBarRepository).upsertAll(eq("TSLA"), eq("1day"), argThat(fetched -> fetched.size() == 2));
+        server.verify();
+    }
+
+    private static PriceBarEntity storedBar(String symbol, LocalDate day, double close) {
+        return PriceBarEntity.builder()
+                .id(new PriceBarId(symbol, "1day", day.atStartOfDay()))
+                .open(close)
+                .high(close)
+                .low(close)
+                .close(close)
+                .volume(1_000)
+                .build();
     }
 }
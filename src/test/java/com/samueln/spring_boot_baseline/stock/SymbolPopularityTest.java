@@ -0,0 +1,197 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity.Ranking;
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
+import com.samueln.spring_boot_baseline.user.FavoriteStockRepository;
+import com.samueln.spring_boot_baseline.user.SymbolFavoriteCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SymbolPopularityTest {
+
+    private SymbolPopularityRepository symbolPopularityRepository;
+    private FavoriteStockRepository favoriteStockRepository;
+
+    @BeforeEach
+    void setUp() {
+        symbolPopularityRepository = mock(SymbolPopularityRepository.class);
+        favoriteStockRepository = mock(FavoriteStockRepository.class);
+        when(symbolPopularityRepository.findAll()).thenReturn(List.of());
+        when(favoriteStockRepository.findMostFavorited(any())).thenReturn(List.of());
+    }
+
+    private SymbolPopularity symbolPopularity(int topK) {
+        return new SymbolPopularity(symbolPopularityRepository, favoriteStockRepository, Duration.ofMinutes(10), topK,
+                Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldRankByViewsFavoritesAndBoth() {
+        when(favoriteStockRepository.findMostFavorited(any())).thenReturn(List.of(count("msft", 5)));
+        SymbolPopularity popularity = symbolPopularity(10);
+        popularity.refresh();
+        for (int i = 0; i < 3; i++) {
+            popularity.recordView("AAPL");
+        }
+        popularity.recordView("MSFT");
+        popularity.recordFavorite("NVDA", 1);
+
+        popularity.refresh();
+
+        assertThat(popularity.trending(Ranking.POPULAR, 10)).extracting(TrendingSymbol::symbol)
+                .containsExactly("MSFT", "AAPL", "NVDA");
+        assertThat(popularity.trending(Ranking.VIEWED, 10)).extracting(TrendingSymbol::symbol)
+                .containsExactly("AAPL", "MSFT");
+        assertThat(popularity.trending(Ranking.FAVORITED, 10)).extracting(TrendingSymbol::symbol)
+                .containsExactly("MSFT", "NVDA");
+        assertThat(popularity.trending(Ranking.FAVORITED, 1).getFirst().favorites()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldTreatStoredFavoritesAsTheTruthOnReconciling() {
+        when(favoriteStockRepository.findMostFavorited(any())).thenReturn(List.of(count("AAPL", 3)));
+        SymbolPopularity popularity = symbolPopularity(10);
+        // Already part of the stored counts by the time they are reconciled.
+        popularity.recordFavorite("AAPL", 1);
+
+        popularity.refresh();
+
+        assertThat(popularity.trending(Ranking.FAVORITED, 10).getFirst().favorites()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepOnlyTheTopK() {
+        SymbolPopularity popularity = symbolPopularity(2);
+        List.of("A", "B", "B", "C", "C", "C").forEach(popularity::recordView);
+
+        popularity.refresh();
+
+        assertThat(popularity.trending(Ranking.VIEWED, 10)).extracting(TrendingSymbol::symbol)
+                .containsExactly("C", "B");
+    }
+
+    @Test
+    void shouldDropFavoritesOnceRemoved() {
+        SymbolPopularity popularity = symbolPopularity(10);
+        popularity.refresh();
+        popularity.recordFavorite("AAPL", 1);
+        popularity.refresh();
+        assertThat(popularity.trending(Ranking.FAVORITED, 10)).hasSize(1);
+
+        popularity.recordFavorite("AAPL", -1);
+        popularity.refresh();
+
+        assertThat(popularity.trending(Ranking.FAVORITED, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldResumeFromStoredScoresDecayedByTheirAge() {
+        when(symbolPopularityRepository.findAll()).thenReturn(List.of(
+                new SymbolPopularityEntity("AAPL", 100, 8, LocalDateTime.now().minusMinutes(10)),
+                new SymbolPopularityEntity("STALE", 1, 0.01, LocalDateTime.now().minusDays(1))));
+        SymbolPopularity popularity = symbolPopularity(10);
+
+        popularity.refresh();
+
+        List<TrendingSymbol> viewed = popularity.trending(Ranking.VIEWED, 10);
+        assertThat(viewed).extracting(TrendingSymbol::symbol).containsExactly("AAPL");
+        assertThat(viewed.getFirst().viewScore()).isCloseTo(4, within(0.01));
+    }
+
+    @Test
+    void shouldFlushNewViewsOnlyOnce() {
+        SymbolPopularity popularity = symbolPopularity(10);
+        popularity.recordView("AAPL");
+        popularity.recordView("AAPL");
+        popularity.refresh();
+
+        popularity.flush();
+        popularity.flush();
+
+        verify(symbolPopularityRepository).upsertAll(anyMap(), eq(Map.of("AAPL", 2L)), any());
+        verify(symbolPopularityRepository).upsertAll(anyMap(), eq(Map.of()), any());
+    }
+
+    @Test
+    void shouldNotLoseCountsRecordedWhileDraining() throws Exception {
+        SymbolPopularity popularity = symbolPopularity(10);
+        popularity.refresh();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> recorders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            recorders.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    popularity.recordView(i % 2 == 0 ? "AAPL" : "MSFT");
+                }
+            }));
+        }
+
+        while (recorders.stream().anyMatch(recorder -> !recorder.isDone())) {
+            popularity.refresh();
+        }
+        for (Future<?> recorder : recorders) {
+            recorder.get();
+        }
+        executor.shutdown();
+        popularity.refresh();
+        popularity.flush();
+
+        ArgumentCaptor<Map<String, Long>> views = ArgumentCaptor.captor();
+        verify(symbolPopularityRepository).upsertAll(anyMap(), views.capture(), any());
+        assertThat(views.getValue()).containsExactlyInAnyOrderEntriesOf(Map.of("AAPL", 100_000L, "MSFT", 100_000L));
+    }
+
+    @Test
+    void shouldNotFlushBeforeStoredScoresAreLoaded() {
+        when(symbolPopularityRepository.findAll()).thenThrow(new IllegalStateException("database down"));
+        SymbolPopularity popularity = symbolPopularity(10);
+        popularity.recordView("AAPL");
+        popularity.refresh();
+
+        popularity.flush();
+
+        verify(symbolPopularityRepository, never()).upsertAll(anyMap(), anyMap(), any());
+    }
+
+    @Test
+    void shouldRejectUnknownRankings() {
+        assertThat(Ranking.parse("Viewed")).isEqualTo(Ranking.VIEWED);
+        assertThatThrownBy(() -> Ranking.parse("loudest")).isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static SymbolFavoriteCount count(String symbol, long favorites) {
+        return new SymbolFavoriteCount() {
+            @Override
+            public String getSymbol() {
+                return symbol;
+            }
+
+            @Override
+            public long getFavorites() {
+                return favorites;
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.dto.SymbolMatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolSearchIndexTest {
+
+    private final SymbolSearchIndex index = SymbolSearchIndex.build(Map.of(
+            "AAPL", "Apple Inc.",
+            "AMAT", "Applied Materials, Inc.",
+            "A", "Agilent Technologies, Inc.",
+            "AA", "Alcoa Corporation",
+            "MSFT", "Microsoft Corporation",
+            "MU", "Micron Technology, Inc.",
+            "BAC", "Bank of America Corporation",
+            "BK", "The Bank of New York Mellon Corporation",
+            "DIS", "The Walt Disney Company"));
+
+    @Test
+    void shouldRankExactSymbolFirstThenPrefixesByLength() {
+        assertThat(symbols(index.search("a", 3))).containsExactly("A", "AA", "AAPL");
+    }
+
+    @Test
+    void shouldMatchNameWordsAfterSymbols() {
+        assertThat(symbols(index.search("micro", 10))).containsExactly("MU", "MSFT");
+        assertThat(symbols(index.search("walt", 10))).containsExactly("DIS");
+    }
+
+    @Test
+    void shouldRankNamesStartingWithTheQueryAheadOfLaterWords() {
+        assertThat(symbols(index.search("bank", 10))).containsExactly("BAC", "BK");
+    }
+
+    @Test
+    void shouldRequireEveryQueryWord() {
+        assertThat(symbols(index.search("bank of am", 10))).containsExactly("BAC");
+        assertThat(symbols(index.search("bank new y", 10))).containsExactly("BK");
+    }
+
+    @Test
+    void shouldMatchOneTypoAway() {
+        assertThat(symbols(index.search("APPL", 10))).startsWith("AAPL");
+        assertThat(symbols(index.search("microsfot", 10))).containsExactly("MSFT");
+        assertThat(index.search("zzzz", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReturnNamesAsGiven() {
+        assertThat(index.search("aapl", 1)).containsExactly(new SymbolMatch("AAPL", "Apple Inc."));
+    }
+
+    @Test
+    void shouldTellWhetherStringsAreOneTypoApart() {
+        assertThat(SymbolSearchIndex.withinOneTypo("AAPL", "AAPL", 4)).isTrue();
+        assertThat(SymbolSearchIndex.withinOneTypo("APPL", "AAPL", 4)).isTrue();
+        assertThat(SymbolSearchIndex.withinOneTypo("AAPL", "APAL", 4)).isTrue();
+        assertThat(SymbolSearchIndex.withinOneTypo("AAP", "AAPL", 4)).isTrue();
+        assertThat(SymbolSearchIndex.withinOneTypo("AAPLE", "AAPL", 4)).isTrue();
+        assertThat(SymbolSearchIndex.withinOneTypo("MSFT", "MUFG", 4)).isFalse();
+        assertThat(SymbolSearchIndex.withinOneTypo("MICRO", "MICROSOFT", 5)).isTrue();
+    }
+
+    private static List<String> symbols(List<SymbolMatch> matches) {
+        return matches.stream().map(SymbolMatch::symbol).toList();
+    }
+}
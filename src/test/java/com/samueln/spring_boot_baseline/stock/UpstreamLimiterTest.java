@@ -0,0 +1,49 @@
+package com.samueln.spring_boot_baseline.stock;
+
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Outcome;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Permit;
+import com.samueln.spring_boot_baseline.stock.UpstreamLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamLimiterTest {
+
+    @Test
+    void shouldRejectCallsOnceCreditsAreExhausted() {
+        UpstreamLimiter limiter = new UpstreamLimiter(2, 8, 8, Duration.ofMillis(50), Duration.ofMillis(50));
+
+        limiter.acquire(Priority.INTERACTIVE, 1).release(Outcome.SUCCESS);
+        limiter.acquire(Priority.INTERACTIVE, 1).release(Outcome.SUCCESS);
+
+        assertThatThrownBy(() -> limiter.acquire(Priority.INTERACTIVE, 1))
+                .isInstanceOf(UpstreamLimitExceededException.class);
+    }
+
+    @Test
+    void shouldHalveConcurrencyWhenThrottled() {
+        UpstreamLimiter limiter = new UpstreamLimiter(100, 8, 32, Duration.ofMillis(50), Duration.ofMillis(50));
+
+        limiter.acquire(Priority.INTERACTIVE, 1).release(Outcome.THROTTLED);
+
+        assertThat(limiter.concurrencyLimit()).isEqualTo(4.0);
+        assertThat(limiter.availableCredits()).isLessThan(1.0);
+    }
+
+    @Test
+    void shouldNotAdmitMoreCallsThanTheConcurrencyLimit() {
+        UpstreamLimiter limiter = new UpstreamLimiter(100, 1, 1, Duration.ofMillis(50), Duration.ofMillis(50));
+
+        Permit permit = limiter.acquire(Priority.INTERACTIVE, 1);
+        assertThatThrownBy(() -> limiter.acquire(Priority.INTERACTIVE, 1))
+                .isInstanceOf(UpstreamLimitExceededException.class);
+
+        permit.release(Outcome.SUCCESS);
+        permit.release(Outcome.SUCCESS);
+        assertThat(limiter.inFlight()).isZero();
+        limiter.acquire(Priority.INTERACTIVE, 1).release(Outcome.SUCCESS);
+    }
+}
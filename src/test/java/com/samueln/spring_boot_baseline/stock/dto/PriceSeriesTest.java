@@ -0,0 +1,60 @@
+package com.samueln.spring_boot_baseline.stock.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceSeriesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldEncodeJsonAsParallelArrays() throws IOException {
+        PriceSeries series = sample();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(series));
+
+        assertThat(json.fieldNames()).toIterable().containsExactly("interval", "t", "o", "h", "l", "c", "v");
+        assertThat(json.get("t").get(0).asLong()).isEqualTo(1_704_067_200L);
+        assertThat(json.get("c").size()).isEqualTo(2);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(series), PriceSeries.class))
+                .isEqualTo(series);
+    }
+
+    @Test
+    void shouldRoundTripBinaryEncoding() {
+        PriceSeries series = sample();
+
+        byte[] bytes = series.toBinary();
+
+        assertThat(bytes).hasSize(1 + 2 + "1month".length() + 4 + 2 * 48);
+        assertThat(PriceSeries.fromBinary(bytes)).isEqualTo(series);
+    }
+
+    @Test
+    void shouldBuildOldestFirstAndReplaceRepeatedBars() {
+        PriceSeries series = PriceSeries.builder(2)
+                .add(300, 3, 3, 3, 3, 3)
+                .add(200, 2, 2, 2, 2, 2)
+                .add(100, 1, 1, 1, 1, 1)
+                .add(100, 9, 9, 9, 9, 9)
+                .build();
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.time(0)).isEqualTo(100);
+        assertThat(series.close(0)).isEqualTo(9);
+        assertThat(series.last(2).time(0)).isEqualTo(200);
+    }
+
+    private static PriceSeries sample() {
+        return PriceSeries.builder(2)
+                .interval("1month")
+                .add(1_704_067_200L, 138.0, 142.0, 137.5, 140.0, 1_000)
+                .add(1_706_745_600L, 140.0, 150.25, 139.0, 149.5, 2_000)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.samueln.spring_boot_baseline.stock.dto.twelvedata;
+
+import com.samueln.spring_boot_baseline.stock.dto.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwelveDataTimeSeriesDecoderTest {
+
+    @Test
+    void shouldDecodeSingleSymbolResponseOldestFirst() throws IOException {
+        Map<String, PriceSeries> result = decode("""
+                {
+                  "meta": { "symbol": "AAPL", "interval": "1day", "currency": "USD" },
+                  "values": [
+                    { "datetime": "2024-03-05", "open": "170.76", "high": "172.04", "low": "169.62",
+                      "close": "170.12", "volume": "95132400" },
+                    { "datetime": "2024-03-04", "open": "176.15", "high": "176.90", "low": "173.79",
+                      "close": "175.10", "volume": "81510100", "extra": { "ignored": [1, 2] } }
+                  ],
+                  "status": "ok"
+                }
+                """, List.of("AAPL"));
+
+        PriceSeries series = result.get("AAPL");
+        assertThat(series.interval()).isEqualTo("1day");
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.time(0)).isEqualTo(LocalDate.of(2024, 3, 4).toEpochDay() * 86_400);
+        assertThat(series.open(0)).isEqualTo(176.15);
+        assertThat(series.high(0)).isEqualTo(176.90);
+        assertThat(series.low(0)).isEqualTo(173.79);
+        assertThat(series.close(0)).isEqualTo(175.10);
+        assertThat(series.volume(0)).isEqualTo(81_510_100L);
+        assertThat(series.close(1)).isEqualTo(170.12);
+    }
+
+    @Test
+    void shouldDecodeMultiSymbolResponseAndDropErrors() throws IOException {
+        Map<String, PriceSeries> result = decode("""
+                {
+                  "AAPL": { "values": [ { "datetime": "2024-03-04 15:55:00", "close": "175.1" } ], "status": "ok" },
+                  "NOPE": { "code": 404, "message": "symbol not found", "status": "error" }
+                }
+                """, List.of("AAPL", "NOPE"));
+
+        assertThat(result).containsOnlyKeys("AAPL");
+        PriceSeries series = result.get("AAPL");
+        assertThat(series.time(0)).isEqualTo(LocalDateTime.of(2024, 3, 4, 15, 55).toEpochSecond(ZoneOffset.UTC));
+        assertThat(series.open(0)).isEqualTo(175.1);
+        assertThat(series.volume(0)).isZero();
+    }
+
+    @Test
+    void shouldSkipBarsWithoutUsableDateOrClose() throws IOException {
+        Map<String, PriceSeries> result = decode("""
+                { "values": [
+                    { "datetime": "not a date", "close": "1.0" },
+                    { "datetime": "2024-01-01", "close": "" },
+                    { "datetime": "2024-02-01", "close": "1e2" }
+                ] }
+                """, List.of("IBM"));
+
+        assertThat(result.get("IBM").size()).isEqualTo(1);
+        assertThat(result.get("IBM").close(0)).isEqualTo(100.0);
+    }
+
+    @Test
+    void shouldParseDecimalsExactly() {
+        for (String value : List.of("0", "187.4400", "-0.0123", "123456789.123456", "0.1", "99999.99999")) {
+            char[] chars = value.toCharArray();
+            assertThat(TwelveDataTimeSeriesDecoder.parseDecimal(chars, 0, chars.length))
+                    .isEqualTo(Double.parseDouble(value));
+        }
+    }
+
+    private static Map<String, PriceSeries> decode(String json, List<String> symbols) throws IOException {
+        return TwelveDataTimeSeriesDecoder.decode(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), symbols);
+    }
+}
@@ -2,6 +2,10 @@ package com.samueln.spring_boot_baseline.user;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity;
+import com.samueln.spring_boot_baseline.stock.SymbolPopularity.Ranking;
+import com.samueln.spring_boot_baseline.stock.dto.TrendingSymbol;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +15,14 @@ import org.springframework.boot.testcontainers.service.connection.ServiceConnect
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -33,6 +40,15 @@ class FavoriteIntegrationTest {
 
     private MockMvc mockMvc;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SymbolPopularity symbolPopularity;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private UserRepository userRepository;
     
@@ -75,7 +91,7 @@ class FavoriteIntegrationTest {
     }
 
     @Test
-    void shouldNotAddDuplicateFavorite() throws Exception {
+    void shouldTreatDuplicateFavoriteAsNoOp() throws Exception {
         AddFavoriteRequest request = new AddFavoriteRequest("AAPL");
 
         mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites")
@@ -86,6 +102,106 @@ class FavoriteIntegrationTest {
         mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/" + testUser.getId() + "/favorites"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void shouldReturn404WhenAddingFavoriteForUnknownUser() throws Exception {
+        mockMvc.perform(post("/api/users/" + UUID.randomUUID() + "/favorites")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AddFavoriteRequest("AAPL"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldAddAndRemoveFavoritesInBatches() throws Exception {
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AddFavoriteRequest("AAPL"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new FavoriteBatchRequest(List.of("AAPL", "MSFT", "NVDA", "MSFT")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(3)))
+                .andExpect(jsonPath("$.changed", is(2)));
+
+        mockMvc.perform(get("/api/users/" + testUser.getId() + "/favorites"))
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        mockMvc.perform(delete("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new FavoriteBatchRequest(List.of("AAPL", "TSLA")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(2)))
+                .andExpect(jsonPath("$.changed", is(1)));
+
+        mockMvc.perform(get("/api/users/" + testUser.getId() + "/favorites"))
+                .andExpect(jsonPath("$[*].symbol", containsInAnyOrder("MSFT", "NVDA")));
+    }
+
+    @Test
+    void shouldReturn404WhenAddingFavoritesInBatchForUnknownUser() throws Exception {
+        mockMvc.perform(post("/api/users/" + UUID.randomUUID() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new FavoriteBatchRequest(List.of("AAPL")))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectOverlongSymbolsForExistingUser() throws Exception {
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new FavoriteBatchRequest(List.of("AAPL", "X".repeat(256))))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new FavoriteBatchRequest(List.of("X".repeat(255))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed", is(1)));
+    }
+
+    @Test
+    void shouldNormalizeSymbolsBeforeAddingThem() throws Exception {
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new FavoriteBatchRequest(List.of(" AAPL", "aapl", "AAPL ")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested", is(1)))
+                .andExpect(jsonPath("$.changed", is(1)));
+
+        mockMvc.perform(get("/api/users/" + testUser.getId() + "/favorites"))
+                .andExpect(jsonPath("$[*].symbol", containsInAnyOrder("AAPL")));
+    }
+
+    @Test
+    void shouldCountFavoritesOnlyOnceCommitted() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.addFavorite(testUser.getId(), "RLBK");
+            status.setRollbackOnly();
+        });
+        userService.addFavorite(testUser.getId(), "CMTD");
+
+        symbolPopularity.refresh();
+
+        assertThat(symbolPopularity.trending(Ranking.FAVORITED, 100)).extracting(TrendingSymbol::symbol)
+                .contains("CMTD")
+                .doesNotContain("RLBK");
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/users/" + testUser.getId() + "/favorites:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new FavoriteBatchRequest(List.of()))))
                 .andExpect(status().isBadRequest());
     }
 
@@ -112,8 +228,21 @@ class FavoriteIntegrationTest {
     }
     
     @Test
-    void shouldReturn404WhenRemovingNonExistentFavorite() throws Exception {
-        mockMvc.perform(delete("/api/users/" + testUser.getId() + "/favorites/GOOGL"))
+    void shouldReturnEmptyFavoriteSummariesWhenUserHasNoFavorites() throws Exception {
+        mockMvc.perform(get("/api/users/" + testUser.getId() + "/favorites/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void shouldReturn404ForFavoriteSummariesWhenUserNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/" + UUID.randomUUID() + "/favorites/summaries"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldTreatRemovingNonExistentFavoriteAsNoOp() throws Exception {
+        mockMvc.perform(delete("/api/users/" + testUser.getId() + "/favorites/GOOGL"))
+                .andExpect(status().isNoContent());
+    }
 }
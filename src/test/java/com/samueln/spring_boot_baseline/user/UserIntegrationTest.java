@@ -0,0 +1,142 @@
+package com.samueln.spring_boot_baseline.user;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@Testcontainers
+class UserIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FavoriteStockRepository favoriteStockRepository;
+
+    private MockMvc mockMvc;
+
+    private List<UUID> ids;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        favoriteStockRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userRepository.save(UserEntity.builder()
+                    .username("user-" + i)
+                    .email("user-" + i + "@example.com")
+                    .build()).getId());
+        }
+        // Postgres orders uuids bytewise, which matches their string form but not UUID.compareTo.
+        ids.sort(Comparator.comparing(UUID::toString));
+    }
+
+    @Test
+    void shouldPageThroughUsersWithKeysetCursor() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(ids.get(0).toString())))
+                .andExpect(jsonPath("$[1].id", is(ids.get(1).toString())))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + ids.get(1))))
+                .andReturn();
+        assertThat(first.getResponse().getHeader(HttpHeaders.LINK)).endsWith("; rel=\"next\"");
+
+        mockMvc.perform(get("/api/users").param("limit", "2").param("after", ids.get(3).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(ids.get(4).toString())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void shouldListEveryUserWithoutPagingParameters() throws Exception {
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].id", is(ids.get(0).toString())))
+                .andExpect(jsonPath("$[4].id", is(ids.get(4).toString())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void shouldPageWithDefaultLimitAfterCursor() throws Exception {
+        mockMvc.perform(get("/api/users").param("after", ids.get(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id", is(ids.get(2).toString())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void shouldAssignTimeOrderedIds() {
+        UUID first = userRepository.save(UserEntity.builder().username("first").email("first@example.com").build())
+                .getId();
+        UUID second = userRepository.save(UserEntity.builder().username("second").email("second@example.com").build())
+                .getId();
+
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(second.toString()).isGreaterThan(first.toString());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeLimit() throws Exception {
+        mockMvc.perform(get("/api/users").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamUsersAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("after", ids.get(1).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"id\":\"" + ids.get(2) + "\"").contains("\"username\":");
+        // Dates are ISO-8601 strings, as in the paged JSON response.
+        assertThat(lines.get(0)).containsPattern("\"createdAt\":\"\\d{4}-\\d{2}-\\d{2}T");
+        assertThat(lines.get(2)).contains("\"id\":\"" + ids.get(4) + "\"");
+    }
+}
@@ -0,0 +1,31 @@
+package com.samueln.spring_boot_baseline.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void shouldIncreaseStrictlyInDatabaseOrder() {
+        UUID previous = UuidV7.generate();
+        // Far more than fit in one millisecond's counter.
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertThat(next.toString()).isGreaterThan(previous.toString());
+            previous = next;
+        }
+    }
+}